@@ -0,0 +1,62 @@
+-- One-off, for databases created while status, role, type and purpose were stored as
+-- names: run once to convert them to the SMALLINT codes of the CodedEnum types (see
+-- tables.sql). NULLs take the column default; an unknown name fails the NOT NULL check
+-- and rolls the whole script back. Rewrites the four tables under an
+-- exclusive lock, so run it with the application stopped.
+--   psql -d seal_db -f coded_enum_migration.sql
+BEGIN;
+
+ALTER TABLE users
+ALTER COLUMN role DROP DEFAULT,
+ALTER COLUMN role TYPE SMALLINT USING CASE COALESCE(role, 'USER')
+    WHEN 'USER' THEN 1
+    WHEN 'ADMIN' THEN 2
+END,
+ALTER COLUMN role SET DEFAULT 1,
+ALTER COLUMN role SET NOT NULL,
+ALTER COLUMN status DROP DEFAULT,
+ALTER COLUMN status TYPE SMALLINT USING CASE COALESCE(status, 'ACTIVE')
+    WHEN 'ACTIVE' THEN 1
+    WHEN 'BLOCKED' THEN 2
+END,
+ALTER COLUMN status SET DEFAULT 1,
+ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE wallets
+ALTER COLUMN status DROP DEFAULT,
+ALTER COLUMN status TYPE SMALLINT USING CASE COALESCE(status, 'ACTIVE')
+    WHEN 'ACTIVE' THEN 1
+    WHEN 'FROZEN' THEN 2
+END,
+ALTER COLUMN status SET DEFAULT 1,
+ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE transactions
+ALTER COLUMN type TYPE SMALLINT USING CASE type
+    WHEN 'SEND' THEN 1
+    WHEN 'RECEIVE' THEN 2
+END,
+ALTER COLUMN status DROP DEFAULT,
+ALTER COLUMN status TYPE SMALLINT USING CASE COALESCE(status, 'SUCCESS')
+    WHEN 'PENDING' THEN 1
+    WHEN 'SUCCESS' THEN 2
+    WHEN 'FAILED' THEN 3
+END,
+ALTER COLUMN status SET DEFAULT 2,
+ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE otps
+ALTER COLUMN purpose TYPE SMALLINT USING CASE purpose
+    WHEN 'LOGIN' THEN 1
+    WHEN 'TRANSACTION' THEN 2
+END,
+ALTER COLUMN status DROP DEFAULT,
+ALTER COLUMN status TYPE SMALLINT USING CASE COALESCE(status, 'PENDING')
+    WHEN 'PENDING' THEN 1
+    WHEN 'VERIFIED' THEN 2
+    WHEN 'EXPIRED' THEN 3
+END,
+ALTER COLUMN status SET DEFAULT 1,
+ALTER COLUMN status SET NOT NULL;
+
+COMMIT;
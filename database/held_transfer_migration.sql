@@ -0,0 +1,17 @@
+-- One-off, for databases created before held transfers: run once before starting this
+-- version (ddl-auto=validate expects the new columns). Status codes must already be
+-- SMALLINT (coded_enum_migration.sql) for the partial index; 1 is PENDING.
+--   psql -d seal_db -f held_transfer_migration.sql
+BEGIN;
+
+ALTER TABLE wallets
+ADD COLUMN held_balance NUMERIC(15, 2) NOT NULL DEFAULT 0.0;
+
+ALTER TABLE transactions
+ADD COLUMN hold_expires_at TIMESTAMP;
+
+CREATE INDEX idx_otps_transaction ON otps (transaction_id) WHERE transaction_id IS NOT NULL;
+
+CREATE INDEX idx_transactions_pending_hold_expiry ON transactions (hold_expires_at) WHERE status = 1;
+
+COMMIT;
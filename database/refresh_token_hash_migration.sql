@@ -0,0 +1,26 @@
+-- One-off, for databases created before refresh tokens were stored as hashes: run once
+-- (PostgreSQL 11+ for sha256). Outstanding tokens keep working, each row is keyed by the
+-- SHA-256 of its token, as RefreshTokenService computes it.
+--   psql -d seal_db -f refresh_token_hash_migration.sql
+BEGIN;
+
+ALTER TABLE users
+ADD COLUMN token_generation INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE refresh_tokens
+ADD COLUMN token_hash BYTEA,
+ADD COLUMN generation INTEGER NOT NULL DEFAULT 0;
+
+UPDATE refresh_tokens
+SET
+    token_hash = sha256 (convert_to (token, 'UTF8')),
+    revoked = COALESCE(revoked, FALSE);
+
+ALTER TABLE refresh_tokens
+ALTER COLUMN token_hash SET NOT NULL,
+ALTER COLUMN revoked SET NOT NULL,
+ADD CONSTRAINT refresh_tokens_token_hash_key UNIQUE (token_hash),
+ADD CONSTRAINT refresh_tokens_token_hash_check CHECK (octet_length(token_hash) = 32),
+DROP COLUMN token;
+
+COMMIT;
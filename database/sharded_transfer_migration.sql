@@ -0,0 +1,6 @@
+-- One-off, for databases created before cross-shard transfers: run once before starting
+-- this version, sharded or not (ddl-auto=validate expects the new columns).
+--   psql -d seal_db -f sharded_transfer_migration.sql
+ALTER TABLE transactions
+ADD COLUMN counterparty_phone VARCHAR(15),
+ADD COLUMN saga_id BIGINT UNIQUE;
@@ -0,0 +1,19 @@
+-- Sharded deployment (seal.sharding.enabled). Each shard is a database with the full
+-- schema from tables.sql; run this script on it afterwards, before any row is written,
+-- with its index:
+--   createdb seal_shard_1
+--   psql -d seal_shard_1 -f tables.sql
+--   psql -d seal_shard_1 -v shard=1 -f sharding.sql
+-- User, wallet and transaction ids carry their shard in the bits above 40: shard s issues
+-- s * 2^40 + 1, s * 2^40 + 2, ... so ids are unique across shards and the shard of an id
+-- is id >> 40, independent of the shard count (see ShardRouter). Shard 0 issues 1, 2, ...
+-- as before, so an existing unsharded database serves as shard 0 without this script.
+-- Adding a shard: prepare it as above with the next index. Only the users the hash ring
+-- moves onto it change shard; copy their rows over, with new ids, before enabling it.
+SELECT (:shard::BIGINT << 40) + 1 AS first_id \gset
+
+ALTER SEQUENCE users_id_seq RESTART WITH :first_id;
+
+ALTER SEQUENCE wallets_id_seq RESTART WITH :first_id;
+
+ALTER SEQUENCE transactions_id_seq RESTART WITH :first_id;
@@ -1,11 +1,14 @@
 -- Database Creation 
+-- Status, role, type and purpose columns hold the SMALLINT codes of the enums in
+-- com.seal.seal.entity (CodedEnum); the code, not the name, is the stable value.
 CREATE TABLE
     users (
         id BIGSERIAL PRIMARY KEY,
         phone VARCHAR(15) UNIQUE NOT NULL,
         password TEXT NOT NULL,
-        role VARCHAR(20) DEFAULT 'USER',
-        status VARCHAR(20) DEFAULT 'ACTIVE',
+        role SMALLINT NOT NULL DEFAULT 1, -- 1 USER / 2 ADMIN
+        status SMALLINT NOT NULL DEFAULT 1, -- 1 ACTIVE / 2 BLOCKED
+        token_generation INTEGER NOT NULL DEFAULT 0, -- bumped on logout to revoke refresh tokens
         last_login TIMESTAMP,
         created_at TIMESTAMP DEFAULT NOW (),
         updated_at TIMESTAMP DEFAULT NOW ()
@@ -16,9 +19,11 @@ CREATE TABLE
     wallets (
         id BIGSERIAL PRIMARY KEY,
         user_id BIGINT UNIQUE REFERENCES users (id) ON DELETE CASCADE,
-        balance NUMERIC(15, 2) DEFAULT 0.0,
-        status VARCHAR(20) DEFAULT 'ACTIVE',
-        updated_at TIMESTAMP DEFAULT NOW ()
+        balance NUMERIC(15, 2) NOT NULL DEFAULT 0.0,
+        held_balance NUMERIC(15, 2) NOT NULL DEFAULT 0.0, -- reserved by pending holds
+        status SMALLINT NOT NULL DEFAULT 1, -- 1 ACTIVE / 2 FROZEN
+        updated_at TIMESTAMP DEFAULT NOW (),
+        version BIGINT NOT NULL DEFAULT 0
     );
 
 -- Transactions Table
@@ -28,9 +33,12 @@ CREATE TABLE
         from_wallet BIGINT REFERENCES wallets (id) ON DELETE CASCADE,
         to_wallet BIGINT REFERENCES wallets (id) ON DELETE CASCADE,
         amount NUMERIC(15, 2) NOT NULL,
-        type VARCHAR(20) NOT NULL, -- SEND / RECEIVE
-        status VARCHAR(20) DEFAULT 'SUCCESS',
-        created_at TIMESTAMP DEFAULT NOW ()
+        type SMALLINT NOT NULL, -- 1 SEND / 2 RECEIVE
+        status SMALLINT NOT NULL DEFAULT 2, -- 1 PENDING / 2 SUCCESS / 3 FAILED / 4 VOIDED
+        created_at TIMESTAMP DEFAULT NOW (),
+        hold_expires_at TIMESTAMP, -- PENDING holds only
+        counterparty_phone VARCHAR(15), -- cross-shard legs: the other side's phone
+        saga_id BIGINT UNIQUE -- cross-shard receiver leg: id of the sender's leg
     );
 
 -- OTP Table
@@ -40,8 +48,8 @@ CREATE TABLE
         user_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
         transaction_id BIGINT REFERENCES transactions (id),
         otp_code VARCHAR(6) NOT NULL,
-        purpose VARCHAR(20) NOT NULL, -- LOGIN / TRANSACTION
-        status VARCHAR(20) DEFAULT 'PENDING', -- PENDING / VERIFIED / EXPIRED
+        purpose SMALLINT NOT NULL, -- 1 LOGIN / 2 TRANSACTION
+        status SMALLINT NOT NULL DEFAULT 1, -- 1 PENDING / 2 VERIFIED / 3 EXPIRED
         created_at TIMESTAMP DEFAULT NOW (),
         expires_at TIMESTAMP
     );
@@ -50,9 +58,84 @@ CREATE TABLE
 CREATE TABLE
     refresh_tokens (
         id BIGSERIAL PRIMARY KEY,
-        token VARCHAR(255) UNIQUE NOT NULL,
+        token_hash BYTEA UNIQUE NOT NULL CHECK (octet_length(token_hash) = 32), -- SHA-256 of the token
         user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
         expires_at TIMESTAMP NOT NULL,
-        revoked BOOLEAN DEFAULT FALSE,
+        revoked BOOLEAN NOT NULL DEFAULT FALSE,
+        generation INTEGER NOT NULL DEFAULT 0, -- users.token_generation at issue time
         created_at TIMESTAMP DEFAULT NOW ()
-    );
\ No newline at end of file
+    );
+
+-- Per-wallet, per-day rollup maintained by each transfer
+CREATE TABLE
+    wallet_daily_summaries (
+        wallet_id BIGINT NOT NULL REFERENCES wallets (id) ON DELETE CASCADE,
+        summary_date DATE NOT NULL,
+        sent_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+        sent_count BIGINT NOT NULL DEFAULT 0,
+        received_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+        received_count BIGINT NOT NULL DEFAULT 0,
+        PRIMARY KEY (wallet_id, summary_date)
+    );
+
+-- One row per wallet side of each transaction, written with it: history reads the last N
+-- ids of a wallet from the indexes below without touching the heap
+CREATE TABLE
+    wallet_activity (
+        transaction_id BIGINT NOT NULL REFERENCES transactions (id) ON DELETE CASCADE,
+        wallet_id BIGINT NOT NULL REFERENCES wallets (id) ON DELETE CASCADE,
+        created_at TIMESTAMP NOT NULL,
+        sent BOOLEAN NOT NULL, -- true on the sender's row
+        PRIMARY KEY (transaction_id, wallet_id)
+    );
+
+-- Standing orders, claimed by the scheduler with a lease
+CREATE TABLE
+    scheduled_transfers (
+        id BIGSERIAL PRIMARY KEY,
+        from_wallet BIGINT NOT NULL REFERENCES wallets (id) ON DELETE CASCADE,
+        to_wallet BIGINT NOT NULL REFERENCES wallets (id) ON DELETE CASCADE,
+        amount NUMERIC(15, 2) NOT NULL,
+        frequency SMALLINT NOT NULL, -- 1 ONCE / 2 DAILY / 3 WEEKLY / 4 MONTHLY
+        status SMALLINT NOT NULL DEFAULT 1, -- 1 ACTIVE / 2 COMPLETED / 3 CANCELLED / 4 FAILED
+        first_run_at TIMESTAMP NOT NULL, -- recurrences are counted from here
+        next_run_at TIMESTAMP NOT NULL,
+        lease_owner VARCHAR(64),
+        lease_until TIMESTAMP,
+        run_count INTEGER NOT NULL DEFAULT 0,
+        last_run_at TIMESTAMP,
+        last_outcome SMALLINT, -- transactions.status code of the last run
+        last_error VARCHAR(255),
+        last_transaction_id BIGINT REFERENCES transactions (id) ON DELETE SET NULL,
+        created_at TIMESTAMP DEFAULT NOW (),
+        version BIGINT NOT NULL DEFAULT 0
+    );
+
+-- Indexes for the expired-row purge job
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE INDEX idx_otps_expires_at ON otps (expires_at);
+
+-- OTP verification looks up the latest pending code per user and purpose
+CREATE INDEX idx_otps_user_purpose ON otps (user_id, purpose, status, created_at DESC);
+
+-- Hold capture looks up the code bound to the hold
+CREATE INDEX idx_otps_transaction ON otps (transaction_id) WHERE transaction_id IS NOT NULL;
+
+-- Date-range scans per wallet for statement exports
+CREATE INDEX idx_transactions_from_wallet_created_at ON transactions (from_wallet, created_at);
+
+CREATE INDEX idx_transactions_to_wallet_created_at ON transactions (to_wallet, created_at);
+
+-- Scheduler claim: due active rows in next_run_at order
+CREATE INDEX idx_scheduled_transfers_due ON scheduled_transfers (next_run_at) WHERE status = 1;
+
+CREATE INDEX idx_scheduled_transfers_from_wallet ON scheduled_transfers (from_wallet);
+
+-- Hold expiry sweep: only pending holds are indexed
+CREATE INDEX idx_transactions_pending_hold_expiry ON transactions (hold_expires_at) WHERE status = 1;
+
+-- History: a wallet's latest transactions, all or by direction (index-only scans)
+CREATE INDEX idx_wallet_activity_recent ON wallet_activity (wallet_id, created_at DESC, transaction_id DESC);
+
+CREATE INDEX idx_wallet_activity_direction ON wallet_activity (wallet_id, sent, created_at DESC, transaction_id DESC);
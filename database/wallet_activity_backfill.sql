@@ -0,0 +1,25 @@
+-- One-off, for databases created before wallet_activity existed: run once after creating
+-- the table and its indexes (see tables.sql). New transactions write their own rows.
+--   psql -d seal_db -f wallet_activity_backfill.sql
+INSERT INTO
+    wallet_activity (transaction_id, wallet_id, created_at, sent)
+SELECT
+    id, from_wallet, created_at, TRUE
+FROM
+    transactions
+WHERE
+    from_wallet IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+INSERT INTO
+    wallet_activity (transaction_id, wallet_id, created_at, sent)
+SELECT
+    id, to_wallet, created_at, FALSE
+FROM
+    transactions
+WHERE
+    to_wallet IS NOT NULL
+    AND to_wallet IS DISTINCT FROM from_wallet
+ON CONFLICT DO NOTHING;
+
+ANALYZE wallet_activity;
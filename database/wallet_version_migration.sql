@@ -0,0 +1,6 @@
+-- One-off, for databases created before wallets were optimistically locked: run once
+-- before starting this version (ddl-auto=validate expects wallets.version). Existing
+-- rows start at version 0, as new wallets do.
+--   psql -d seal_db -f wallet_version_migration.sql
+ALTER TABLE wallets
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,88 @@
+package com.seal.seal.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Hints for the native image (mvn -Pnative native:compile). Spring AOT already covers the
+// beans, JPA entities, converters and repositories; these are for libraries that load
+// classes by name or read resources at runtime. BCrypt needs none: it is plain Java and
+// its SecureRandom is created at runtime with the bean.
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-api creates its implementation classes reflectively (Jwts, CompressionCodecs)
+    // and finds the Jackson serializer and the codecs through ServiceLoader
+    static final String[] JJWT_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private static final String EHCACHE_XML_MODEL = "classpath*:org/ehcache/xml/model/*.class";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Hibernate's JCache region factory looks the provider up by class name, and Ehcache
+        // binds ehcache.xml to its JAXB model after validating it against the bundled XSDs
+        hints.reflection().registerType(TypeReference.of(EHCACHE_PROVIDER), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources()
+                .registerPattern("ehcache.xml")
+                .registerPattern("ehcache-*.xsd")
+                .registerPattern("META-INF/services/javax.cache.*")
+                .registerPattern("META-INF/services/org.ehcache.*");
+        registerEhcacheXmlModel(hints, classLoader);
+
+        // SqlStatisticsDataSource hands out JDK proxies, which a native image must know of
+        hints.proxies()
+                .registerJdkProxy(Connection.class)
+                .registerJdkProxy(Statement.class)
+                .registerJdkProxy(PreparedStatement.class)
+                .registerJdkProxy(CallableStatement.class)
+                .registerJdkProxy(ResultSet.class);
+    }
+
+    private static void registerEhcacheXmlModel(RuntimeHints hints, ClassLoader classLoader) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readers = new CachingMetadataReaderFactory(resolver);
+        try {
+            for (Resource resource : resolver.getResources(EHCACHE_XML_MODEL)) {
+                String className = readers.getMetadataReader(resource).getClassMetadata().getClassName();
+                if (className.endsWith("package-info")) {
+                    continue;
+                }
+                hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not scan the Ehcache XML model", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.seal.seal.config;
+
+import com.seal.seal.repository.UserRepository;
+import com.seal.seal.util.RequestTimings;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import java.beans.Introspector;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Feeds RequestTimings from the service and data layers without touching each class
+@Configuration
+public class RequestTimingConfig {
+
+    // Calls into @Service beans count as "svc"; calls into our repositories are named after
+    // the repository (UserRepository -> "user", WalletRepository -> "wallet"). Declared as
+    // infrastructure so the auto-proxy creator that already applies @Transactional picks it
+    // up; outermost, so a service's time includes its transaction interceptor.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requestTimingAdvisor() {
+        ClassFilter timed = type -> Repository.class.isAssignableFrom(type)
+                || AnnotatedElementUtils.hasAnnotation(type, Service.class);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ComposablePointcut(timed), new PhaseInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    // Connection checkout and commit show up as their own phases. Only fired for the
+    // transaction that actually begins and commits, not for calls that join it.
+    @Bean
+    TransactionExecutionListener requestTimingTransactionListener() {
+        return new TransactionExecutionListener() {
+            @Override
+            public void beforeBegin(TransactionExecution transaction) {
+                RequestTimings.enter("begin");
+            }
+
+            @Override
+            public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+                RequestTimings.exit();
+            }
+
+            @Override
+            public void beforeCommit(TransactionExecution transaction) {
+                RequestTimings.enter("commit");
+            }
+
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                RequestTimings.exit();
+            }
+
+            @Override
+            public void beforeRollback(TransactionExecution transaction) {
+                RequestTimings.enter("rollback");
+            }
+
+            @Override
+            public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+                RequestTimings.exit();
+            }
+        };
+    }
+
+    static final class PhaseInterceptor implements MethodInterceptor {
+
+        private static final String REPOSITORY_PACKAGE = UserRepository.class.getPackageName();
+
+        private final Map<Class<?>, String> phases = new ConcurrentHashMap<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (RequestTimings.current() == null) {
+                return invocation.proceed();
+            }
+            RequestTimings.enter(phases.computeIfAbsent(invocation.getThis().getClass(), PhaseInterceptor::phaseOf));
+            try {
+                return invocation.proceed();
+            } finally {
+                RequestTimings.exit();
+            }
+        }
+
+        // Repository beans are JDK proxies; the repository interface carries the name
+        private static String phaseOf(Class<?> type) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                String name = candidate.getSimpleName();
+                if (candidate.getPackageName().equals(REPOSITORY_PACKAGE) && name.endsWith("Repository")) {
+                    return Introspector.decapitalize(name.substring(0, name.length() - "Repository".length()));
+                }
+            }
+            return "svc";
+        }
+    }
+}
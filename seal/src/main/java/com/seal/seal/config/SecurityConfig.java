@@ -1,7 +1,10 @@
 package com.seal.seal.config;
 
+import com.seal.seal.entity.UserRole;
 import com.seal.seal.security.JwtAuthenticationEntryPoint;
 import com.seal.seal.security.JwtAuthenticationFilter;
+import com.seal.seal.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,6 +36,11 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter();
     }
 
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+
     @Bean
     public JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint() {
         return new JwtAuthenticationEntryPoint();
@@ -40,16 +48,24 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter, 
+                                         RateLimitFilter rateLimitFilter,
                                          JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint) throws Exception {
         http.csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
+                // Async re-dispatches (streamed responses) were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
+                // Liveness and readiness probes come from the orchestrator, without a token
+                .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+                // Metrics and SQL statistics (including resetting them) are for operators only
+                .requestMatchers("/actuator/**").hasRole(UserRole.ADMIN.name())
                 .anyRequest().authenticated()
             )
             .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,197 @@
+package com.seal.seal.config;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.util.ShardContext;
+import com.seal.seal.util.ShardKey;
+import com.seal.seal.util.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sharded deployment (seal.sharding.enabled): users and everything they own are spread over
+// the databases in seal.sharding.urls by ShardRouter. Every database holds the full schema;
+// a call runs on the shard named by its @ShardKey parameter. With sharding off there is a
+// single-shard router and none of the beans below.
+@Configuration
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    // Tables whose ids carry their shard (see ShardRouter)
+    static final String[] SHARD_ID_TABLES = {"users", "wallets", "transactions"};
+
+    @Bean
+    ShardRouter shardRouter(@Value("${seal.sharding.enabled:false}") boolean enabled,
+                            @Value("${seal.sharding.urls:}") String[] urls,
+                            @Value("${seal.sharding.points-per-shard:160}") int pointsPerShard) {
+        if (!enabled) {
+            return ShardRouter.single();
+        }
+        if (urls.length == 0) {
+            throw new IllegalStateException("seal.sharding.enabled needs seal.sharding.urls");
+        }
+        return new ShardRouter(urls.length, pointsPerShard);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "seal.sharding.enabled", havingValue = "true")
+    static class Sharded {
+
+        // Replaces the auto-configured pool. Credentials and driver come from
+        // spring.datasource.*, pool settings from spring.datasource.hikari.*; only the URL
+        // differs per shard.
+        @Bean
+        @Primary
+        ShardRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                          @Value("${seal.sharding.urls}") String[] urls) {
+            List<HikariDataSource> pools = new ArrayList<>(urls.length);
+            for (int i = 0; i < urls.length; i++) {
+                HikariDataSource pool = properties.initializeDataSourceBuilder()
+                        .type(HikariDataSource.class).url(urls[i].trim()).build();
+                Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+                pool.setPoolName("seal-shard-" + i);
+                pools.add(pool);
+            }
+            logger.info("Sharding over {} databases", urls.length);
+            return new ShardRoutingDataSource(pools);
+        }
+
+        // Outside everything but request timing, so the shard is bound before
+        // @Transactional takes a connection
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        static Advisor shardKeyAdvisor(ObjectProvider<ShardRouter> router) {
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+                @Override
+                public boolean matches(Method method, Class<?> targetClass) {
+                    return ShardKeyInterceptor.keyOf(AopUtils.getMostSpecificMethod(method, targetClass)) != null;
+                }
+            }, new ShardKeyInterceptor(router));
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+            return advisor;
+        }
+
+        // For throwaway databases (local H2 shards, tests): creates the schema on every shard
+        // and starts the id columns at the shard's first id. Existing databases get database/sharding.sql instead.
+        @Bean
+        @ConditionalOnProperty(name = "seal.sharding.initialize-schema", havingValue = "true")
+        SmartInitializingSingleton shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                          DataSource dataSource, ShardRouter router) {
+            return () -> {
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+                int shards = router.shardCount();
+                for (int shard = 0; shard < shards; shard++) {
+                    long firstId = ShardRouter.firstId(shard);
+                    ShardContext.run(shard, () -> {
+                        var schema = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+                        schema.dropMappedObjects(false);
+                        schema.exportMappedObjects(false);
+                        for (String table : SHARD_ID_TABLES) {
+                            jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + firstId);
+                        }
+                    });
+                }
+                logger.info("Created the schema on {} shards", shards);
+            };
+        }
+    }
+
+    static final class ShardKeyInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<ShardRouter> routerProvider;
+        private final Map<Method, Key> keys = new ConcurrentHashMap<>();
+        private volatile ShardRouter router;
+
+        ShardKeyInterceptor(ObjectProvider<ShardRouter> routerProvider) {
+            this.routerProvider = routerProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (ShardContext.current() != null) {
+                return invocation.proceed();
+            }
+            Key key = keys.computeIfAbsent(invocation.getMethod(), method ->
+                    keyOf(AopUtils.getMostSpecificMethod(method, invocation.getThis().getClass())));
+            int shard = shardOf(key.type(), invocation.getArguments()[key.index()]);
+            if (shard < 0) {
+                return invocation.proceed();
+            }
+            Integer previous = ShardContext.enter(shard);
+            try {
+                return invocation.proceed();
+            } finally {
+                ShardContext.exit(previous);
+            }
+        }
+
+        private int shardOf(ShardKey.Type type, Object value) {
+            if (value == null) {
+                return -1;
+            }
+            ShardRouter router = router();
+            return switch (type) {
+                case PHONE -> router.shardOfPhone((String) value);
+                case REFRESH_TOKEN -> router.shardOfRefreshToken((String) value);
+                case ID -> {
+                    Long id = value instanceof User user ? user.getId() : (Long) value;
+                    yield id != null ? router.shardOfId(id) : -1;
+                }
+            };
+        }
+
+        private ShardRouter router() {
+            ShardRouter resolved = router;
+            if (resolved == null) {
+                resolved = routerProvider.getObject();
+                router = resolved;
+            }
+            return resolved;
+        }
+
+        static Key keyOf(Method method) {
+            Annotation[][] annotations = method.getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (Annotation annotation : annotations[i]) {
+                    if (annotation instanceof ShardKey shardKey) {
+                        return new Key(i, shardKey.value());
+                    }
+                }
+            }
+            return null;
+        }
+
+        record Key(int index, ShardKey.Type type) {
+        }
+    }
+}
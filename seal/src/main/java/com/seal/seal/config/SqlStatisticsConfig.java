@@ -0,0 +1,44 @@
+package com.seal.seal.config;
+
+import com.seal.seal.util.SqlStatementStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.sql.DataSource;
+
+// Per-statement SQL statistics: the pool is wrapped in SqlStatisticsDataSource, the numbers
+// are served at /actuator/sqlstats and statements slower than slow-ms are logged at WARN
+@Configuration
+@ConditionalOnProperty(name = "seal.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    // A plain bean rather than a @Service, so the request timing advisor stays off the JDBC path
+    @Bean
+    SqlStatementStatistics sqlStatementStatistics(@Value("${seal.sql-stats.slow-ms:200}") long slowMs,
+                                                  @Value("${seal.sql-stats.max-shapes:1000}") int maxShapes) {
+        return new SqlStatementStatistics(slowMs, maxShapes);
+    }
+
+    // Static and resolving the statistics lazily, so registering the post-processor does not
+    // pull other beans into existence before the rest of the post-processors are in place
+    @Bean
+    static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(ObjectProvider<SqlStatementStatistics> statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource, statistics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    SqlStatsEndpoint sqlStatsEndpoint(SqlStatementStatistics statistics) {
+        return new SqlStatsEndpoint(statistics);
+    }
+}
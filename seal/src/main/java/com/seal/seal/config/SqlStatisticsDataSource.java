@@ -0,0 +1,168 @@
+package com.seal.seal.config;
+
+import com.seal.seal.util.SqlStatementStatistics;
+import com.seal.seal.util.SqlStatementStatistics.Shape;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Times every statement executed through the pool and counts the rows it returns (or
+// updates). Connections, statements and result sets are JDK proxies over the pool's own
+// objects; unwrap() still reaches the pool, so Hikari metrics and health checks are
+// unaffected. Latency is the execute call only; fetching rows is not included.
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    private final SqlStatementStatistics statistics;
+
+    public SqlStatisticsDataSource(DataSource target, SqlStatementStatistics statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(), new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password), new ConnectionHandler());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target, TargetHandler handler) {
+        handler.target = target;
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class TargetHandler implements InvocationHandler {
+
+        Object target;
+
+        // Proxies compare by identity, as the pool's own objects do
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handle(method, args);
+            };
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object proceed(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends TargetHandler {
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = proceed(method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrap(PreparedStatement.class, (PreparedStatement) result,
+                            new StatementHandler(statistics.shapeOf((String) args[0])));
+                case "prepareCall":
+                    return wrap(CallableStatement.class, (CallableStatement) result,
+                            new StatementHandler(statistics.shapeOf((String) args[0])));
+                case "createStatement":
+                    return wrap(Statement.class, (Statement) result, new StatementHandler(null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    // Prepared statements carry their shape; plain statements take it from each execute(sql)
+    private final class StatementHandler extends TargetHandler {
+
+        private Shape shape;
+
+        StatementHandler(Shape shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("getResultSet")) {
+                    return rows(proceed(method, args));
+                }
+                return proceed(method, args);
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                shape = statistics.shapeOf(sql);
+            }
+            if (shape == null) {
+                // executeBatch on a plain Statement; batched SQL is not tracked
+                return proceed(method, args);
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = proceed(method, args);
+            } catch (Throwable e) {
+                statistics.record(shape, System.nanoTime() - start, true);
+                throw e;
+            }
+            statistics.record(shape, System.nanoTime() - start, false);
+            if (result instanceof ResultSet) {
+                return rows(result);
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                shape.addRows(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    shape.addRows(Math.max(0, count));
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    shape.addRows(Math.max(0, count));
+                }
+            }
+            return result;
+        }
+
+        private Object rows(Object resultSet) {
+            if (resultSet == null || shape == null) {
+                return resultSet;
+            }
+            return wrap(ResultSet.class, (ResultSet) resultSet, new ResultSetHandler(shape));
+        }
+    }
+
+    private static final class ResultSetHandler extends TargetHandler {
+
+        private final Shape shape;
+
+        ResultSetHandler(Shape shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = proceed(method, args);
+            if (result == Boolean.TRUE && method.getName().equals("next")) {
+                shape.addRows(1);
+            }
+            return result;
+        }
+    }
+}
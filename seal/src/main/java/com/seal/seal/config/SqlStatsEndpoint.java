@@ -0,0 +1,38 @@
+package com.seal.seal.config;
+
+import com.seal.seal.util.SqlStatementStatistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/sqlstats?limit=20 lists statement shapes by total time; DELETE starts over
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final SqlStatementStatistics statistics;
+
+    public SqlStatsEndpoint(SqlStatementStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statements(@Nullable Integer limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("since", Instant.ofEpochMilli(statistics.sinceMillis()).toString());
+        result.put("shapes", statistics.shapeCount());
+        result.put("slowStatements", statistics.slowStatements());
+        result.put("statements", statistics.snapshot(limit != null && limit > 0 ? limit : DEFAULT_LIMIT));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
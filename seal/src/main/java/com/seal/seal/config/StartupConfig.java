@@ -0,0 +1,25 @@
+package com.seal.seal.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@ImportRuntimeHints(NativeHints.class)
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization a bean is created on first use, and @Scheduled
+    // methods are only registered when their bean is created. Beans that schedule work
+    // (purge, hold sweep, scheduled transfers, heartbeats) stay eager so their jobs run
+    // without waiting for a request to touch them.
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -1,11 +1,20 @@
 package com.seal.seal.controller;
 
 import com.seal.seal.dto.AuthResponse;
+import com.seal.seal.dto.ApiResponse;
 import com.seal.seal.dto.LoginRequest;
+import com.seal.seal.dto.OtpLoginRequest;
+import com.seal.seal.dto.OtpRequest;
 import com.seal.seal.dto.RefreshTokenRequest;
 import com.seal.seal.dto.RegisterRequest;
+import com.seal.seal.entity.Otp;
+import com.seal.seal.entity.OtpPurpose;
 import com.seal.seal.entity.RefreshToken;
 import com.seal.seal.entity.User;
+import com.seal.seal.entity.UserStatus;
+import com.seal.seal.exception.RateLimitExceededException;
+import com.seal.seal.exception.SealException;
+import com.seal.seal.service.OtpService;
 import com.seal.seal.service.RefreshTokenService;
 import com.seal.seal.service.UserService;
 import com.seal.seal.util.JwtUtil;
@@ -32,6 +41,9 @@ public class AuthController {
     @Autowired
     private RefreshTokenService refreshTokenService;
 
+    @Autowired
+    private OtpService otpService;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
         try {
@@ -45,6 +57,9 @@ public class AuthController {
             AuthResponse response = new AuthResponse(accessToken, refreshToken.getToken(), 
                                                    user.getPhone(), "User registered successfully");
             return ResponseEntity.ok(response);
+        } catch (SealException e) {
+            logger.info("Registration rejected for phone {}: {}", request.getPhone(), e.getCode());
+            return ResponseEntity.status(e.getStatus()).body(new AuthResponse(null, null, e.getMessage()));
         } catch (Exception e) {
             logger.error("Registration failed for phone {}: {}", request.getPhone(), e.getMessage());
             return ResponseEntity.badRequest().body(new AuthResponse(null, null, e.getMessage()));
@@ -63,7 +78,7 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Invalid credentials"));
             }
 
-            if (!"ACTIVE".equals(user.getStatus())) {
+            if (user.getStatus() != UserStatus.ACTIVE) {
                 logger.warn("Login attempt for blocked account: {}", request.getPhone());
                 return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Account is blocked"));
             }
@@ -82,27 +97,56 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/otp/request")
+    public ResponseEntity<?> requestLoginOtp(@Valid @RequestBody OtpRequest request) {
+        logger.info("Login OTP request for phone: {}", request.getPhone());
+        
+        // Same answer whether or not the phone is registered
+        otpService.issue(request.getPhone(), OtpPurpose.LOGIN);
+        return ResponseEntity.ok(new ApiResponse(true, "If the phone number is registered, an OTP has been sent"));
+    }
+
+    @PostMapping("/otp/login")
+    public ResponseEntity<?> loginWithOtp(@Valid @RequestBody OtpLoginRequest request) {
+        try {
+            logger.info("OTP login attempt for phone: {}", request.getPhone());
+            
+            Otp otp = otpService.verify(request.getPhone(), OtpPurpose.LOGIN, request.getCode())
+                    .orElseThrow(() -> new RuntimeException("Invalid or expired OTP"));
+            User user = otp.getUser();
+
+            if (user.getStatus() != UserStatus.ACTIVE) {
+                logger.warn("OTP login attempt for blocked account: {}", request.getPhone());
+                return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Account is blocked"));
+            }
+
+            userService.updateLastLogin(user.getPhone());
+            String accessToken = jwtUtil.generateToken(user.getPhone());
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+            
+            logger.info("OTP login successful for phone: {}", request.getPhone());
+            AuthResponse response = new AuthResponse(accessToken, refreshToken.getToken(), 
+                                                   user.getPhone(), "Login successful");
+            return ResponseEntity.ok(response);
+        } catch (RateLimitExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("OTP login failed for phone {}: {}", request.getPhone(), e.getMessage());
+            return ResponseEntity.badRequest().body(new AuthResponse(null, null, "Invalid credentials"));
+        }
+    }
+
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
         try {
             logger.info("Token refresh attempt");
             
-            RefreshToken refreshToken = refreshTokenService.findByToken(request.getRefreshToken())
-                    .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
-            
-            refreshToken = refreshTokenService.verifyExpiration(refreshToken);
+            // Validates expiry, revocation and generation, then rotates in place
+            RefreshToken newRefreshToken = refreshTokenService.rotate(request.getRefreshToken());
             
-            if (refreshToken.isRevoked()) {
-                throw new RuntimeException("Refresh token has been revoked");
-            }
-            
-            User user = refreshToken.getUser();
+            User user = newRefreshToken.getUser();
             String newAccessToken = jwtUtil.generateToken(user.getPhone());
             
-            // Rotate refresh token
-            refreshTokenService.deleteToken(refreshToken);
-            RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user);
-            
             logger.info("Token refreshed successfully for user: {}", user.getPhone());
             AuthResponse response = new AuthResponse(newAccessToken, newRefreshToken.getToken(), 
                                                    user.getPhone(), "Token refreshed successfully");
@@ -0,0 +1,43 @@
+package com.seal.seal.controller;
+
+import com.seal.seal.exception.RateLimitExceededException;
+import com.seal.seal.service.NotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/notifications")
+public class NotificationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // Pushes "balance" and "transfer-received" events in place of polling
+    // /wallet/balance and /transactions/received. Errors carry no body: an event-stream
+    // client cannot negotiate the JSON error format.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Authentication authentication) {
+        String phone = authentication.getName();
+        logger.info("Notification stream requested by user: {}", phone);
+        try {
+            return ResponseEntity.ok(notificationService.subscribe(phone));
+        } catch (RateLimitExceededException e) {
+            logger.warn("Notification stream rejected for user {}: {}", phone, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+}
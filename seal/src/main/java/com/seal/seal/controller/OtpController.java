@@ -0,0 +1,44 @@
+package com.seal.seal.controller;
+
+import com.seal.seal.dto.ApiResponse;
+import com.seal.seal.dto.OtpVerifyRequest;
+import com.seal.seal.entity.OtpPurpose;
+import com.seal.seal.service.OtpService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/otp")
+public class OtpController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpController.class);
+
+    @Autowired
+    private OtpService otpService;
+
+    @PostMapping("/request")
+    public ResponseEntity<?> requestTransactionOtp(Authentication authentication) {
+        String phone = authentication.getName();
+        logger.info("Transaction OTP request for user: {}", phone);
+
+        otpService.issue(phone, OtpPurpose.TRANSACTION);
+        return ResponseEntity.ok(new ApiResponse(true, "OTP sent"));
+    }
+
+    @PostMapping("/verify")
+    public ResponseEntity<?> verifyTransactionOtp(@Valid @RequestBody OtpVerifyRequest request,
+                                                  Authentication authentication) {
+        String phone = authentication.getName();
+
+        boolean verified = otpService.verify(phone, OtpPurpose.TRANSACTION, request.getCode()).isPresent();
+        if (!verified) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Invalid or expired OTP"));
+        }
+        return ResponseEntity.ok(new ApiResponse(true, "OTP verified"));
+    }
+}
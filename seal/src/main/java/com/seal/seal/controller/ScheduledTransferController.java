@@ -0,0 +1,84 @@
+package com.seal.seal.controller;
+
+import com.seal.seal.dto.ScheduledTransferRequest;
+import com.seal.seal.dto.ScheduledTransferResponse;
+import com.seal.seal.entity.ScheduledTransfer;
+import com.seal.seal.entity.User;
+import com.seal.seal.exception.SealException;
+import com.seal.seal.service.ScheduledTransferService;
+import com.seal.seal.service.UserService;
+import com.seal.seal.util.Money;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/scheduled-transfers")
+public class ScheduledTransferController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTransferController.class);
+
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping
+    public ResponseEntity<?> create(@Valid @RequestBody ScheduledTransferRequest request, Authentication authentication) {
+        try {
+            String fromPhone = authentication.getName();
+            ScheduledTransfer scheduled = scheduledTransferService.create(fromPhone, request.getToPhone(),
+                    Money.toMinor(request.getAmount()), request.getFrequency(), request.getFirstRunAt());
+            return ResponseEntity.ok(toResponse(scheduled, request.getToPhone()));
+        } catch (SealException e) {
+            logger.info("Scheduled transfer rejected for user {}: {}", authentication.getName(), e.getCode());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error scheduling transfer for user {}: {}", authentication.getName(), e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> list(Authentication authentication) {
+        try {
+            User user = userService.findByPhone(authentication.getName());
+            List<ScheduledTransferResponse> response = scheduledTransferService.getUserScheduledTransfers(user.getId())
+                .stream()
+                .map(st -> toResponse(st, st.getToWallet().getUser().getPhone()))
+                .collect(Collectors.toList());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching scheduled transfers for user {}: {}", authentication.getName(), e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable Long id, Authentication authentication) {
+        ScheduledTransfer scheduled = scheduledTransferService.cancel(authentication.getName(), id);
+        return ResponseEntity.ok(toResponse(scheduled, scheduled.getToWallet().getUser().getPhone()));
+    }
+
+    private static ScheduledTransferResponse toResponse(ScheduledTransfer st, String toPhone) {
+        return new ScheduledTransferResponse(
+            st.getId(),
+            toPhone,
+            st.getAmount(),
+            st.getFrequency(),
+            st.getStatus(),
+            st.getNextRunAt(),
+            st.getRunCount(),
+            st.getLastRunAt(),
+            st.getLastOutcome(),
+            st.getLastError()
+        );
+    }
+}
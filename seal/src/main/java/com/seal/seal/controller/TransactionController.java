@@ -1,18 +1,33 @@
 package com.seal.seal.controller;
 
+import com.seal.seal.dto.OtpVerifyRequest;
 import com.seal.seal.dto.TransactionResponse;
 import com.seal.seal.dto.TransferRequest;
+import com.seal.seal.entity.OtpPurpose;
 import com.seal.seal.entity.Transaction;
 import com.seal.seal.entity.User;
+import com.seal.seal.exception.InvalidRequestException;
+import com.seal.seal.exception.SealException;
+import com.seal.seal.service.OtpService;
+import com.seal.seal.service.StatementExportService;
 import com.seal.seal.service.TransactionService;
 import com.seal.seal.service.UserService;
+import com.seal.seal.service.WalletService;
+import com.seal.seal.util.Money;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,12 +37,23 @@ public class TransactionController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
+    private static final int MAX_HISTORY_LIMIT = 1000;
+
     @Autowired
     private TransactionService transactionService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private OtpService otpService;
+
     @PostMapping("/transfer")
     public ResponseEntity<?> transferMoney(@Valid @RequestBody TransferRequest request, 
                                          Authentication authentication) {
@@ -37,45 +63,96 @@ public class TransactionController {
             logger.info("Transfer request: from={}, to={}, amount={}", fromPhone, request.getToPhone(), request.getAmount());
             
             if (fromPhone.equals(request.getToPhone())) {
-                logger.warn("Self-transfer attempt by user: {}", fromPhone);
-                return ResponseEntity.badRequest().body("Cannot transfer to yourself");
+                throw InvalidRequestException.SELF_TRANSFER;
             }
 
             Transaction transaction = transactionService.transferMoney(
-                fromPhone, request.getToPhone(), request.getAmount());
+                fromPhone, request.getToPhone(), Money.toMinor(request.getAmount()));
             
             TransactionResponse response = new TransactionResponse(
                 transaction.getId(),
-                transaction.getFromWallet().getUser().getPhone(),
-                transaction.getToWallet().getUser().getPhone(),
+                transaction.getFromPhone(),
+                transaction.getToPhone(),
                 transaction.getAmount(),
-                transaction.getType(),
+                transaction.getType().name(),
                 transaction.getStatus(),
                 transaction.getCreatedAt()
             );
             
             logger.info("Transfer successful: transactionId={}, amount={}", transaction.getId(), request.getAmount());
             return ResponseEntity.ok(response);
+        } catch (SealException e) {
+            // Expected rejection: one line, no stack trace; GlobalExceptionHandler builds the response
+            logger.info("Transfer rejected for user {}: {}", authentication.getName(), e.getCode());
+            throw e;
         } catch (Exception e) {
             logger.error("Transfer failed for user {}: {}", authentication.getName(), e.getMessage(), e);
             return ResponseEntity.badRequest().body("Transfer failed: " + e.getMessage());
         }
     }
 
+    // Reserves the amount and sends a TRANSACTION OTP bound to the hold; the transfer
+    // completes when the code comes back to /holds/{id}/capture
+    @PostMapping("/holds")
+    public ResponseEntity<?> authorizeHold(@Valid @RequestBody TransferRequest request, Authentication authentication) {
+        String fromPhone = authentication.getName();
+        try {
+            if (fromPhone.equals(request.getToPhone())) {
+                throw InvalidRequestException.SELF_TRANSFER;
+            }
+            Transaction hold = transactionService.authorizeHold(fromPhone, request.getToPhone(),
+                    Money.toMinor(request.getAmount()));
+            otpService.issue(fromPhone, OtpPurpose.TRANSACTION, hold);
+            return ResponseEntity.ok(toResponse(hold, "SENT"));
+        } catch (SealException e) {
+            logger.info("Hold rejected for user {}: {}", fromPhone, e.getCode());
+            throw e;
+        }
+    }
+
+    @PostMapping("/holds/{id}/capture")
+    public ResponseEntity<?> captureHold(@PathVariable Long id, @Valid @RequestBody OtpVerifyRequest request,
+                                         Authentication authentication) {
+        String fromPhone = authentication.getName();
+        if (otpService.verifyForTransaction(fromPhone, id, request.getCode()).isEmpty()) {
+            throw new InvalidRequestException("Invalid or expired OTP");
+        }
+        try {
+            return ResponseEntity.ok(toResponse(transactionService.captureHold(fromPhone, id), "SENT"));
+        } catch (SealException e) {
+            logger.info("Capture rejected for user {}, hold {}: {}", fromPhone, id, e.getCode());
+            throw e;
+        }
+    }
+
+    @PostMapping("/holds/{id}/void")
+    public ResponseEntity<?> voidHold(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(toResponse(transactionService.voidHold(authentication.getName(), id), "SENT"));
+    }
+
+    // History, sent and received answer If-None-Match with 304 from the wallet version alone.
+    // With ?limit=N they return the newest N transactions; without, all of them.
     @GetMapping("/history")
-    public ResponseEntity<?> getTransactionHistory(Authentication authentication) {
+    public ResponseEntity<?> getTransactionHistory(@RequestParam(required = false) Integer limit,
+                                                   Authentication authentication, WebRequest webRequest) {
+        checkLimit(limit);
         try {
             String phone = authentication.getName();
+            if (webRequest.checkNotModified(walletService.versionTag(phone, scope("history", limit)))) {
+                return null;
+            }
             logger.debug("Fetching transaction history for user: {}", phone);
             
             User user = userService.findByPhone(phone);
-            List<Transaction> transactions = transactionService.getUserTransactions(user.getId());
+            List<Transaction> transactions = limit != null
+                    ? transactionService.getUserTransactions(user.getId(), limit)
+                    : transactionService.getUserTransactions(user.getId());
             
             List<TransactionResponse> response = transactions.stream()
                 .map(t -> new TransactionResponse(
                     t.getId(),
-                    t.getFromWallet().getUser().getPhone(),
-                    t.getToWallet().getUser().getPhone(),
+                    t.getFromPhone(),
+                    t.getToPhone(),
                     t.getAmount(),
                     determineTransactionType(t, user.getId()),
                     t.getStatus(),
@@ -92,17 +169,24 @@ public class TransactionController {
     }
 
     @GetMapping("/sent")
-    public ResponseEntity<?> getSentTransactions(Authentication authentication) {
+    public ResponseEntity<?> getSentTransactions(@RequestParam(required = false) Integer limit,
+                                                 Authentication authentication, WebRequest webRequest) {
+        checkLimit(limit);
         try {
             String phone = authentication.getName();
+            if (webRequest.checkNotModified(walletService.versionTag(phone, scope("sent", limit)))) {
+                return null;
+            }
             User user = userService.findByPhone(phone);
-            List<Transaction> transactions = transactionService.getSentTransactions(user.getId());
+            List<Transaction> transactions = limit != null
+                    ? transactionService.getSentTransactions(user.getId(), limit)
+                    : transactionService.getSentTransactions(user.getId());
             
             List<TransactionResponse> response = transactions.stream()
                 .map(t -> new TransactionResponse(
                     t.getId(),
-                    t.getFromWallet().getUser().getPhone(),
-                    t.getToWallet().getUser().getPhone(),
+                    t.getFromPhone(),
+                    t.getToPhone(),
                     t.getAmount(),
                     "SENT",
                     t.getStatus(),
@@ -118,17 +202,24 @@ public class TransactionController {
     }
 
     @GetMapping("/received")
-    public ResponseEntity<?> getReceivedTransactions(Authentication authentication) {
+    public ResponseEntity<?> getReceivedTransactions(@RequestParam(required = false) Integer limit,
+                                                     Authentication authentication, WebRequest webRequest) {
+        checkLimit(limit);
         try {
             String phone = authentication.getName();
+            if (webRequest.checkNotModified(walletService.versionTag(phone, scope("received", limit)))) {
+                return null;
+            }
             User user = userService.findByPhone(phone);
-            List<Transaction> transactions = transactionService.getReceivedTransactions(user.getId());
+            List<Transaction> transactions = limit != null
+                    ? transactionService.getReceivedTransactions(user.getId(), limit)
+                    : transactionService.getReceivedTransactions(user.getId());
             
             List<TransactionResponse> response = transactions.stream()
                 .map(t -> new TransactionResponse(
                     t.getId(),
-                    t.getFromWallet().getUser().getPhone(),
-                    t.getToWallet().getUser().getPhone(),
+                    t.getFromPhone(),
+                    t.getToPhone(),
                     t.getAmount(),
                     "RECEIVED",
                     t.getStatus(),
@@ -143,8 +234,59 @@ public class TransactionController {
         }
     }
 
+    // Date range is inclusive on both ends; omitted bounds mean "from the beginning" / "up to today"
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStatement(@RequestParam(defaultValue = StatementExportService.FORMAT_CSV) String format,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                             Authentication authentication) {
+        if (!StatementExportService.FORMAT_CSV.equals(format) && !StatementExportService.FORMAT_NDJSON.equals(format)) {
+            // Handled by GlobalExceptionHandler
+            throw new RuntimeException("Format must be csv or ndjson");
+        }
+
+        String phone = authentication.getName();
+        User user = userService.findByPhone(phone);
+        LocalDateTime start = from != null ? from.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime end = (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay();
+        logger.info("Statement export for user {}: format={}, from={}, to={}", phone, format, start, end);
+
+        StreamingResponseBody body = out -> statementExportService.export(user.getId(), start, end, format, out);
+        MediaType contentType = StatementExportService.FORMAT_NDJSON.equals(format)
+                ? MediaType.parseMediaType("application/x-ndjson")
+                : MediaType.parseMediaType("text/csv");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement." + format + "\"")
+                .body(body);
+    }
+
+    // Called outside the try blocks so the rejection reaches GlobalExceptionHandler
+    private static void checkLimit(Integer limit) {
+        if (limit != null && (limit < 1 || limit > MAX_HISTORY_LIMIT)) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_HISTORY_LIMIT);
+        }
+    }
+
+    // Each limit is a different response, so it gets its own ETag
+    private static String scope(String endpoint, Integer limit) {
+        return limit != null ? endpoint + "-" + limit : endpoint;
+    }
+
+    private static TransactionResponse toResponse(Transaction t, String type) {
+        return new TransactionResponse(
+            t.getId(),
+            t.getFromPhone(),
+            t.getToPhone(),
+            t.getAmount(),
+            type,
+            t.getStatus(),
+            t.getCreatedAt()
+        );
+    }
+
     private String determineTransactionType(Transaction transaction, Long userId) {
-        if (transaction.getFromWallet().getUser().getId().equals(userId)) {
+        if (transaction.getFromWallet() != null && transaction.getFromWallet().getUser().getId().equals(userId)) {
             return "SENT";
         } else {
             return "RECEIVED";
@@ -1,15 +1,25 @@
 package com.seal.seal.controller;
 
+import com.seal.seal.dto.DailySummaryResponse;
 import com.seal.seal.dto.WalletResponse;
+import com.seal.seal.dto.WalletSummaryResponse;
 import com.seal.seal.entity.Wallet;
+import com.seal.seal.entity.WalletDailySummary;
 import com.seal.seal.service.UserService;
 import com.seal.seal.service.WalletService;
+import com.seal.seal.service.WalletSummaryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/wallet")
@@ -23,10 +33,17 @@ public class WalletController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private WalletSummaryService walletSummaryService;
+
+    // Answers If-None-Match with 304 from the wallet version alone, before the wallet is loaded
     @GetMapping("/balance")
-    public ResponseEntity<?> getBalance(Authentication authentication) {
+    public ResponseEntity<?> getBalance(Authentication authentication, WebRequest webRequest) {
         try {
             String phone = authentication.getName();
+            if (webRequest.checkNotModified(walletService.versionTag(phone, "balance"))) {
+                return null;
+            }
             logger.info("Balance inquiry for user: {}", phone);
             
             Wallet wallet = walletService.findByUserPhone(phone);
@@ -45,4 +62,48 @@ public class WalletController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+
+    // Reads the per-day rollups, so cost grows with the number of days, not transactions.
+    // Defaults to the current month.
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        Authentication authentication) {
+        try {
+            String phone = authentication.getName();
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.withDayOfMonth(1);
+            logger.debug("Summary for user {}: from={}, to={}", phone, start, end);
+
+            Wallet wallet = walletService.findByUserPhone(phone);
+            List<WalletDailySummary> summaries = walletSummaryService.getDailySummaries(wallet.getId(), start, end);
+
+            BigDecimal sentTotal = BigDecimal.ZERO;
+            BigDecimal receivedTotal = BigDecimal.ZERO;
+            long sentCount = 0;
+            long receivedCount = 0;
+            for (WalletDailySummary summary : summaries) {
+                sentTotal = sentTotal.add(summary.getSentTotal());
+                sentCount += summary.getSentCount();
+                receivedTotal = receivedTotal.add(summary.getReceivedTotal());
+                receivedCount += summary.getReceivedCount();
+            }
+
+            List<DailySummaryResponse> days = summaries.stream()
+                .map(d -> new DailySummaryResponse(
+                    d.getDay(),
+                    d.getSentTotal(),
+                    d.getSentCount(),
+                    d.getReceivedTotal(),
+                    d.getReceivedCount()
+                ))
+                .collect(Collectors.toList());
+
+            return ResponseEntity.ok(new WalletSummaryResponse(start, end, sentTotal, sentCount,
+                                                               receivedTotal, receivedCount, days));
+        } catch (Exception e) {
+            logger.error("Error retrieving summary for user {}: {}", authentication.getName(), e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 }
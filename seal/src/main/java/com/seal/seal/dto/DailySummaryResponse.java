@@ -0,0 +1,38 @@
+package com.seal.seal.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailySummaryResponse {
+    private LocalDate day;
+    private BigDecimal sentTotal;
+    private long sentCount;
+    private BigDecimal receivedTotal;
+    private long receivedCount;
+
+    public DailySummaryResponse() {}
+
+    public DailySummaryResponse(LocalDate day, BigDecimal sentTotal, long sentCount,
+                                BigDecimal receivedTotal, long receivedCount) {
+        this.day = day;
+        this.sentTotal = sentTotal;
+        this.sentCount = sentCount;
+        this.receivedTotal = receivedTotal;
+        this.receivedCount = receivedCount;
+    }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public BigDecimal getSentTotal() { return sentTotal; }
+    public void setSentTotal(BigDecimal sentTotal) { this.sentTotal = sentTotal; }
+
+    public long getSentCount() { return sentCount; }
+    public void setSentCount(long sentCount) { this.sentCount = sentCount; }
+
+    public BigDecimal getReceivedTotal() { return receivedTotal; }
+    public void setReceivedTotal(BigDecimal receivedTotal) { this.receivedTotal = receivedTotal; }
+
+    public long getReceivedCount() { return receivedCount; }
+    public void setReceivedCount(long receivedCount) { this.receivedCount = receivedCount; }
+}
@@ -0,0 +1,26 @@
+package com.seal.seal.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public class OtpLoginRequest {
+    @NotBlank(message = "Phone number is required")
+    private String phone;
+
+    @NotBlank(message = "OTP code is required")
+    @Pattern(regexp = "^[0-9]{6}$", message = "OTP code must be 6 digits")
+    private String code;
+
+    public OtpLoginRequest() {}
+
+    public OtpLoginRequest(String phone, String code) {
+        this.phone = phone;
+        this.code = code;
+    }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+}
@@ -0,0 +1,17 @@
+package com.seal.seal.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class OtpRequest {
+    @NotBlank(message = "Phone number is required")
+    private String phone;
+
+    public OtpRequest() {}
+
+    public OtpRequest(String phone) {
+        this.phone = phone;
+    }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+}
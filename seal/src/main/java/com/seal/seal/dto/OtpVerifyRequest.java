@@ -0,0 +1,19 @@
+package com.seal.seal.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public class OtpVerifyRequest {
+    @NotBlank(message = "OTP code is required")
+    @Pattern(regexp = "^[0-9]{6}$", message = "OTP code must be 6 digits")
+    private String code;
+
+    public OtpVerifyRequest() {}
+
+    public OtpVerifyRequest(String code) {
+        this.code = code;
+    }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+}
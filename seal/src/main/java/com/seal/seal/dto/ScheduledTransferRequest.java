@@ -0,0 +1,44 @@
+package com.seal.seal.dto;
+
+import com.seal.seal.entity.ScheduleFrequency;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ScheduledTransferRequest {
+    @NotBlank(message = "Receiver phone number is required")
+    private String toPhone;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    // Defaults to ONCE
+    private ScheduleFrequency frequency;
+
+    // Defaults to now
+    private LocalDateTime firstRunAt;
+
+    public ScheduledTransferRequest() {}
+
+    public ScheduledTransferRequest(String toPhone, BigDecimal amount, ScheduleFrequency frequency, LocalDateTime firstRunAt) {
+        this.toPhone = toPhone;
+        this.amount = amount;
+        this.frequency = frequency;
+        this.firstRunAt = firstRunAt;
+    }
+
+    public String getToPhone() { return toPhone; }
+    public void setToPhone(String toPhone) { this.toPhone = toPhone; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public ScheduleFrequency getFrequency() { return frequency; }
+    public void setFrequency(ScheduleFrequency frequency) { this.frequency = frequency; }
+
+    public LocalDateTime getFirstRunAt() { return firstRunAt; }
+    public void setFirstRunAt(LocalDateTime firstRunAt) { this.firstRunAt = firstRunAt; }
+}
@@ -0,0 +1,68 @@
+package com.seal.seal.dto;
+
+import com.seal.seal.entity.ScheduleFrequency;
+import com.seal.seal.entity.ScheduledTransferStatus;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.util.Money;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ScheduledTransferResponse {
+    private Long id;
+    private String toPhone;
+    private BigDecimal amount;
+    private ScheduleFrequency frequency;
+    private ScheduledTransferStatus status;
+    private LocalDateTime nextRunAt;
+    private int runCount;
+    private LocalDateTime lastRunAt;
+    private TransactionStatus lastOutcome;
+    private String lastError;
+
+    public ScheduledTransferResponse() {}
+
+    public ScheduledTransferResponse(Long id, String toPhone, long amount, ScheduleFrequency frequency,
+                                     ScheduledTransferStatus status, LocalDateTime nextRunAt, int runCount,
+                                     LocalDateTime lastRunAt, TransactionStatus lastOutcome, String lastError) {
+        this.id = id;
+        this.toPhone = toPhone;
+        this.amount = Money.toDecimal(amount);
+        this.frequency = frequency;
+        this.status = status;
+        this.nextRunAt = nextRunAt;
+        this.runCount = runCount;
+        this.lastRunAt = lastRunAt;
+        this.lastOutcome = lastOutcome;
+        this.lastError = lastError;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getToPhone() { return toPhone; }
+    public void setToPhone(String toPhone) { this.toPhone = toPhone; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public ScheduleFrequency getFrequency() { return frequency; }
+    public void setFrequency(ScheduleFrequency frequency) { this.frequency = frequency; }
+
+    public ScheduledTransferStatus getStatus() { return status; }
+    public void setStatus(ScheduledTransferStatus status) { this.status = status; }
+
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+
+    public int getRunCount() { return runCount; }
+    public void setRunCount(int runCount) { this.runCount = runCount; }
+
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+
+    public TransactionStatus getLastOutcome() { return lastOutcome; }
+    public void setLastOutcome(TransactionStatus lastOutcome) { this.lastOutcome = lastOutcome; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
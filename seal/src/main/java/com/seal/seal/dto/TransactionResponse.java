@@ -1,5 +1,7 @@
 package com.seal.seal.dto;
 
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.util.Money;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -9,13 +11,19 @@ public class TransactionResponse {
     private String toPhone;
     private BigDecimal amount;
     private String type;
-    private String status;
+    private TransactionStatus status;
     private LocalDateTime createdAt;
 
     public TransactionResponse() {}
 
+    // Amount in minor units, as read from the entity or a query projection
+    public TransactionResponse(Long id, String fromPhone, String toPhone, long amount,
+                             String type, TransactionStatus status, LocalDateTime createdAt) {
+        this(id, fromPhone, toPhone, Money.toDecimal(amount), type, status, createdAt);
+    }
+
     public TransactionResponse(Long id, String fromPhone, String toPhone, BigDecimal amount, 
-                             String type, String status, LocalDateTime createdAt) {
+                             String type, TransactionStatus status, LocalDateTime createdAt) {
         this.id = id;
         this.fromPhone = fromPhone;
         this.toPhone = toPhone;
@@ -40,8 +48,8 @@ public class TransactionResponse {
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public TransactionStatus getStatus() { return status; }
+    public void setStatus(TransactionStatus status) { this.status = status; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
@@ -1,16 +1,23 @@
 package com.seal.seal.dto;
 
+import com.seal.seal.entity.WalletStatus;
+import com.seal.seal.util.Money;
 import java.math.BigDecimal;
 
 public class WalletResponse {
     private Long id;
     private BigDecimal balance;
-    private String status;
+    private WalletStatus status;
     private String userPhone;
 
     public WalletResponse() {}
 
-    public WalletResponse(Long id, BigDecimal balance, String status, String userPhone) {
+    // Balance in minor units, as stored on the wallet
+    public WalletResponse(Long id, long balance, WalletStatus status, String userPhone) {
+        this(id, Money.toDecimal(balance), status, userPhone);
+    }
+
+    public WalletResponse(Long id, BigDecimal balance, WalletStatus status, String userPhone) {
         this.id = id;
         this.balance = balance;
         this.status = status;
@@ -23,8 +30,8 @@ public class WalletResponse {
     public BigDecimal getBalance() { return balance; }
     public void setBalance(BigDecimal balance) { this.balance = balance; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public WalletStatus getStatus() { return status; }
+    public void setStatus(WalletStatus status) { this.status = status; }
 
     public String getUserPhone() { return userPhone; }
     public void setUserPhone(String userPhone) { this.userPhone = userPhone; }
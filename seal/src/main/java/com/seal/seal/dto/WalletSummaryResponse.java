@@ -0,0 +1,49 @@
+package com.seal.seal.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class WalletSummaryResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal sentTotal;
+    private long sentCount;
+    private BigDecimal receivedTotal;
+    private long receivedCount;
+    private List<DailySummaryResponse> days;
+
+    public WalletSummaryResponse() {}
+
+    public WalletSummaryResponse(LocalDate from, LocalDate to, BigDecimal sentTotal, long sentCount,
+                                 BigDecimal receivedTotal, long receivedCount, List<DailySummaryResponse> days) {
+        this.from = from;
+        this.to = to;
+        this.sentTotal = sentTotal;
+        this.sentCount = sentCount;
+        this.receivedTotal = receivedTotal;
+        this.receivedCount = receivedCount;
+        this.days = days;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public BigDecimal getSentTotal() { return sentTotal; }
+    public void setSentTotal(BigDecimal sentTotal) { this.sentTotal = sentTotal; }
+
+    public long getSentCount() { return sentCount; }
+    public void setSentCount(long sentCount) { this.sentCount = sentCount; }
+
+    public BigDecimal getReceivedTotal() { return receivedTotal; }
+    public void setReceivedTotal(BigDecimal receivedTotal) { this.receivedTotal = receivedTotal; }
+
+    public long getReceivedCount() { return receivedCount; }
+    public void setReceivedCount(long receivedCount) { this.receivedCount = receivedCount; }
+
+    public List<DailySummaryResponse> getDays() { return days; }
+    public void setDays(List<DailySummaryResponse> days) { this.days = days; }
+}
@@ -0,0 +1,7 @@
+package com.seal.seal.entity;
+
+// Enums persisted as a stable SMALLINT code rather than their name, so renaming a
+// constant never rewrites data and each status column costs two bytes.
+public interface CodedEnum {
+    short getCode();
+}
@@ -0,0 +1,41 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.AttributeConverter;
+import java.lang.reflect.Array;
+
+// Base for the per-enum JPA converters. Decoding is an array index, not a name lookup.
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+    private final E[] byCode;
+
+    @SuppressWarnings("unchecked")
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        int maxCode = 0;
+        for (E constant : constants) {
+            maxCode = Math.max(maxCode, constant.getCode());
+        }
+        byCode = (E[]) Array.newInstance(type, maxCode + 1);
+        for (E constant : constants) {
+            byCode[constant.getCode()] = constant;
+        }
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E attribute) {
+        return attribute == null ? null : attribute.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        if (code < 0 || code >= byCode.length || byCode[code] == null) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code: " + code);
+        }
+        return byCode[code];
+    }
+}
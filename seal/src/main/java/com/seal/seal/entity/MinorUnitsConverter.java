@@ -0,0 +1,21 @@
+package com.seal.seal.entity;
+
+import com.seal.seal.util.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+
+// Maps long minor units onto the existing NUMERIC(15, 2) money columns
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minor) {
+        return minor == null ? null : Money.toDecimal(minor);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.toMinor(amount);
+    }
+}
@@ -21,11 +21,11 @@ public class Otp {
     @Column(name = "otp_code", nullable = false, length = 6)
     private String otpCode;
 
-    @Column(nullable = false, length = 20)
-    private String purpose; // LOGIN / TRANSACTION
+    @Column(nullable = false)
+    private OtpPurpose purpose;
 
-    @Column(length = 20)
-    private String status = "PENDING"; // PENDING / VERIFIED / EXPIRED
+    @Column(nullable = false)
+    private OtpStatus status = OtpStatus.PENDING;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -35,7 +35,7 @@ public class Otp {
 
     public Otp() {}
 
-    public Otp(User user, String otpCode, String purpose, LocalDateTime expiresAt) {
+    public Otp(User user, String otpCode, OtpPurpose purpose, LocalDateTime expiresAt) {
         this.user = user;
         this.otpCode = otpCode;
         this.purpose = purpose;
@@ -55,11 +55,11 @@ public class Otp {
     public String getOtpCode() { return otpCode; }
     public void setOtpCode(String otpCode) { this.otpCode = otpCode; }
 
-    public String getPurpose() { return purpose; }
-    public void setPurpose(String purpose) { this.purpose = purpose; }
+    public OtpPurpose getPurpose() { return purpose; }
+    public void setPurpose(OtpPurpose purpose) { this.purpose = purpose; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public OtpStatus getStatus() { return status; }
+    public void setStatus(OtpStatus status) { this.status = status; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
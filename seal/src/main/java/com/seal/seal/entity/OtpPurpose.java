@@ -0,0 +1,22 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum OtpPurpose implements CodedEnum {
+    LOGIN(1),
+    TRANSACTION(2);
+
+    private final short code;
+
+    OtpPurpose(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<OtpPurpose> {
+        public JpaConverter() { super(OtpPurpose.class); }
+    }
+}
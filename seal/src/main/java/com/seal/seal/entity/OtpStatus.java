@@ -0,0 +1,23 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum OtpStatus implements CodedEnum {
+    PENDING(1),
+    VERIFIED(2),
+    EXPIRED(3);
+
+    private final short code;
+
+    OtpStatus(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<OtpStatus> {
+        public JpaConverter() { super(OtpStatus.class); }
+    }
+}
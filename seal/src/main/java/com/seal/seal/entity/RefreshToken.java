@@ -10,7 +10,11 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    // SHA-256 of the token handed to the client; the raw token is never stored
+    @Column(name = "token_hash", unique = true, nullable = false, length = 32)
+    private byte[] tokenHash;
+
+    @Transient
     private String token;
 
     @ManyToOne
@@ -23,14 +27,20 @@ public class RefreshToken {
     @Column(nullable = false)
     private boolean revoked = false;
 
+    // User's token generation at issue time; tokens from older generations are revoked
+    @Column(nullable = false)
+    private int generation;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
     public RefreshToken() {}
 
-    public RefreshToken(String token, User user, LocalDateTime expiresAt) {
+    public RefreshToken(String token, byte[] tokenHash, User user, int generation, LocalDateTime expiresAt) {
         this.token = token;
+        this.tokenHash = tokenHash;
         this.user = user;
+        this.generation = generation;
         this.expiresAt = expiresAt;
     }
 
@@ -38,6 +48,10 @@ public class RefreshToken {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
+
+    // Only available on tokens issued or rotated in the current request
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
 
@@ -50,6 +64,9 @@ public class RefreshToken {
     public boolean isRevoked() { return revoked; }
     public void setRevoked(boolean revoked) { this.revoked = revoked; }
 
+    public int getGeneration() { return generation; }
+    public void setGeneration(int generation) { this.generation = generation; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
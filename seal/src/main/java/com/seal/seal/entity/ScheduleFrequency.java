@@ -0,0 +1,47 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum ScheduleFrequency implements CodedEnum {
+    ONCE(1),
+    DAILY(2),
+    WEEKLY(3),
+    MONTHLY(4);
+
+    private final short code;
+
+    ScheduleFrequency(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    // First occurrence strictly after the given time, counted whole periods from the anchor
+    // so short months do not shift later runs (31 Jan, 28 Feb, 31 Mar). Null for ONCE.
+    public LocalDateTime nextAfter(LocalDateTime anchor, LocalDateTime after) {
+        ChronoUnit unit = switch (this) {
+            case ONCE -> null;
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+        };
+        if (unit == null) {
+            return null;
+        }
+        // Catches up past missed periods (e.g. after downtime) instead of firing once per period
+        long periods = Math.max(0, unit.between(anchor, after));
+        LocalDateTime next = anchor.plus(periods, unit);
+        while (!next.isAfter(after)) {
+            next = anchor.plus(++periods, unit);
+        }
+        return next;
+    }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<ScheduleFrequency> {
+        public JpaConverter() { super(ScheduleFrequency.class); }
+    }
+}
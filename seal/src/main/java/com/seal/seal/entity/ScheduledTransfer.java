@@ -0,0 +1,152 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A one-off or recurring transfer executed by ScheduledTransferService. Nodes claim due
+// rows by setting a lease; the version makes a run, a lease takeover and a cancel
+// mutually exclusive.
+@Entity
+@Table(name = "scheduled_transfers")
+public class ScheduledTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "from_wallet", nullable = false)
+    private Wallet fromWallet;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "to_wallet", nullable = false)
+    private Wallet toWallet;
+
+    // Minor units; the column stays NUMERIC(15, 2)
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long amount;
+
+    @Column(nullable = false)
+    private ScheduleFrequency frequency = ScheduleFrequency.ONCE;
+
+    @Column(nullable = false)
+    private ScheduledTransferStatus status = ScheduledTransferStatus.ACTIVE;
+
+    // Anchor every later occurrence is computed from
+    @Column(name = "first_run_at", nullable = false)
+    private LocalDateTime firstRunAt;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "run_count", nullable = false)
+    private int runCount;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "last_outcome")
+    private TransactionStatus lastOutcome;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Version
+    @Column(nullable = false)
+    private long version = 0;
+
+    public ScheduledTransfer() {}
+
+    public ScheduledTransfer(Wallet fromWallet, Wallet toWallet, long amount, ScheduleFrequency frequency,
+                             LocalDateTime nextRunAt) {
+        this.fromWallet = fromWallet;
+        this.toWallet = toWallet;
+        this.amount = amount;
+        this.frequency = frequency;
+        this.firstRunAt = nextRunAt;
+        this.nextRunAt = nextRunAt;
+    }
+
+    // Records the outcome of a run, releases the lease and moves to the next occurrence.
+    // A failed one-off transfer stays failed; a failed recurring one skips to the next period.
+    public void recordRun(LocalDateTime ranAt, TransactionStatus outcome, String error, Long transactionId) {
+        runCount++;
+        lastRunAt = ranAt;
+        lastOutcome = outcome;
+        lastError = error;
+        lastTransactionId = transactionId;
+        leaseOwner = null;
+        leaseUntil = null;
+
+        LocalDateTime next = frequency.nextAfter(firstRunAt, ranAt.isAfter(nextRunAt) ? ranAt : nextRunAt);
+        if (next == null) {
+            status = outcome == TransactionStatus.SUCCESS ? ScheduledTransferStatus.COMPLETED : ScheduledTransferStatus.FAILED;
+            return;
+        }
+        nextRunAt = next;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Wallet getFromWallet() { return fromWallet; }
+    public void setFromWallet(Wallet fromWallet) { this.fromWallet = fromWallet; }
+
+    public Wallet getToWallet() { return toWallet; }
+    public void setToWallet(Wallet toWallet) { this.toWallet = toWallet; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+
+    public ScheduleFrequency getFrequency() { return frequency; }
+    public void setFrequency(ScheduleFrequency frequency) { this.frequency = frequency; }
+
+    public ScheduledTransferStatus getStatus() { return status; }
+    public void setStatus(ScheduledTransferStatus status) { this.status = status; }
+
+    public LocalDateTime getFirstRunAt() { return firstRunAt; }
+    public void setFirstRunAt(LocalDateTime firstRunAt) { this.firstRunAt = firstRunAt; }
+
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+
+    public int getRunCount() { return runCount; }
+    public void setRunCount(int runCount) { this.runCount = runCount; }
+
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+
+    public TransactionStatus getLastOutcome() { return lastOutcome; }
+    public void setLastOutcome(TransactionStatus lastOutcome) { this.lastOutcome = lastOutcome; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public Long getLastTransactionId() { return lastTransactionId; }
+    public void setLastTransactionId(Long lastTransactionId) { this.lastTransactionId = lastTransactionId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,24 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum ScheduledTransferStatus implements CodedEnum {
+    ACTIVE(1),
+    COMPLETED(2),
+    CANCELLED(3),
+    FAILED(4);
+
+    private final short code;
+
+    ScheduledTransferStatus(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<ScheduledTransferStatus> {
+        public JpaConverter() { super(ScheduledTransferStatus.class); }
+    }
+}
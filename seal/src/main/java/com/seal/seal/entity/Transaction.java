@@ -1,11 +1,15 @@
 package com.seal.seal.entity;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
+// Only holds change after insert, and only their status, which TransactionService sets on
+// the locked entity: the cached entry is updated in place rather than the region evicted.
 @Entity
 @Table(name = "transactions")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "transactions")
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,21 +23,36 @@ public class Transaction {
     @JoinColumn(name = "to_wallet")
     private Wallet toWallet;
 
+    // Minor units; the column stays NUMERIC(15, 2)
+    @Convert(converter = MinorUnitsConverter.class)
     @Column(nullable = false, precision = 15, scale = 2)
-    private BigDecimal amount;
+    private long amount;
 
-    @Column(nullable = false, length = 20)
-    private String type; // SEND / RECEIVE
+    @Column(nullable = false)
+    private TransactionType type;
 
-    @Column(length = 20)
-    private String status = "SUCCESS";
+    @Column(nullable = false)
+    private TransactionStatus status = TransactionStatus.SUCCESS;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Set on PENDING holds only; the sweeper voids holds past this point
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
+    // Cross-shard transfers are recorded as one leg per shard: the sender's leg has no
+    // to_wallet, the receiver's no from_wallet, and each names the other side's phone
+    @Column(name = "counterparty_phone", length = 15)
+    private String counterpartyPhone;
+
+    // On the receiver's leg: the id of the sender's leg, unique so a credit applies once
+    @Column(name = "saga_id", unique = true)
+    private Long sagaId;
+
     public Transaction() {}
 
-    public Transaction(Wallet fromWallet, Wallet toWallet, BigDecimal amount, String type) {
+    public Transaction(Wallet fromWallet, Wallet toWallet, long amount, TransactionType type) {
         this.fromWallet = fromWallet;
         this.toWallet = toWallet;
         this.amount = amount;
@@ -50,15 +69,38 @@ public class Transaction {
     public Wallet getToWallet() { return toWallet; }
     public void setToWallet(Wallet toWallet) { this.toWallet = toWallet; }
 
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
 
-    public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public TransactionStatus getStatus() { return status; }
+    public void setStatus(TransactionStatus status) { this.status = status; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getHoldExpiresAt() { return holdExpiresAt; }
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) { this.holdExpiresAt = holdExpiresAt; }
+
+    public String getCounterpartyPhone() { return counterpartyPhone; }
+    public void setCounterpartyPhone(String counterpartyPhone) { this.counterpartyPhone = counterpartyPhone; }
+
+    public Long getSagaId() { return sagaId; }
+    public void setSagaId(Long sagaId) { this.sagaId = sagaId; }
+
+    // Either side may be on another shard; its phone is then the counterparty
+    public String getFromPhone() {
+        return fromWallet != null ? fromWallet.getUser().getPhone() : counterpartyPhone;
+    }
+
+    public String getToPhone() {
+        return toWallet != null ? toWallet.getUser().getPhone() : counterpartyPhone;
+    }
+
+    // The sender's leg of a cross-shard transfer
+    public boolean isSagaDebit() {
+        return toWallet == null && counterpartyPhone != null;
+    }
 }
@@ -0,0 +1,25 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum TransactionStatus implements CodedEnum {
+    PENDING(1),
+    SUCCESS(2),
+    FAILED(3),
+    // Hold released without paying out: voided by the sender or expired
+    VOIDED(4);
+
+    private final short code;
+
+    TransactionStatus(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<TransactionStatus> {
+        public JpaConverter() { super(TransactionStatus.class); }
+    }
+}
@@ -0,0 +1,22 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum TransactionType implements CodedEnum {
+    SEND(1),
+    RECEIVE(2);
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<TransactionType> {
+        public JpaConverter() { super(TransactionType.class); }
+    }
+}
@@ -1,26 +1,40 @@
 package com.seal.seal.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
+// Second-level cached, and looked up by phone through the natural-id cache, so the
+// per-request user lookup in JWT authentication normally costs no query. Change users
+// through the entity: a bulk UPDATE on users evicts the whole region.
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "user-phones")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false, length = 15)
     private String phone;
 
     @Column(nullable = false)
     private String password;
 
-    @Column(length = 20)
-    private String role = "USER";
+    @Column(nullable = false)
+    private UserRole role = UserRole.USER;
+
+    @Column(nullable = false)
+    private UserStatus status = UserStatus.ACTIVE;
 
-    @Column(length = 20)
-    private String status = "ACTIVE";
+    // Bumped on logout to revoke every refresh token issued before it
+    @Column(name = "token_generation", nullable = false)
+    private int tokenGeneration = 0;
 
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
@@ -51,11 +65,14 @@ public class User {
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
-    public String getRole() { return role; }
-    public void setRole(String role) { this.role = role; }
+    public UserRole getRole() { return role; }
+    public void setRole(UserRole role) { this.role = role; }
+
+    public UserStatus getStatus() { return status; }
+    public void setStatus(UserStatus status) { this.status = status; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public int getTokenGeneration() { return tokenGeneration; }
+    public void setTokenGeneration(int tokenGeneration) { this.tokenGeneration = tokenGeneration; }
 
     public LocalDateTime getLastLogin() { return lastLogin; }
     public void setLastLogin(LocalDateTime lastLogin) { this.lastLogin = lastLogin; }
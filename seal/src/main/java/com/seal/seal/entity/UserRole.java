@@ -0,0 +1,22 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum UserRole implements CodedEnum {
+    USER(1),
+    ADMIN(2);
+
+    private final short code;
+
+    UserRole(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<UserRole> {
+        public JpaConverter() { super(UserRole.class); }
+    }
+}
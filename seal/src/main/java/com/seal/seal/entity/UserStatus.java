@@ -0,0 +1,22 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum UserStatus implements CodedEnum {
+    ACTIVE(1),
+    BLOCKED(2);
+
+    private final short code;
+
+    UserStatus(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<UserStatus> {
+        public JpaConverter() { super(UserStatus.class); }
+    }
+}
@@ -1,7 +1,6 @@
 package com.seal.seal.entity;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,15 +15,28 @@ public class Wallet {
     @JoinColumn(name = "user_id", unique = true)
     private User user;
 
-    @Column(precision = 15, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    // Minor units; the column stays NUMERIC(15, 2)
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(precision = 15, scale = 2, nullable = false)
+    private long balance = 0;
 
-    @Column(length = 20)
-    private String status = "ACTIVE";
+    // Funds reserved by pending holds, already taken out of balance
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(name = "held_balance", precision = 15, scale = 2, nullable = false)
+    private long heldBalance = 0;
+
+    @Column(nullable = false)
+    private WalletStatus status = WalletStatus.ACTIVE;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Optimistic lock: Hibernate bumps it on every update and rejects stale writes.
+    // Also exposed to clients as the ETag of balance and history.
+    @Version
+    @Column(nullable = false)
+    private long version = 0;
+
     @OneToMany(mappedBy = "fromWallet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> sentTransactions;
 
@@ -44,15 +56,21 @@ public class Wallet {
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
-    public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public long getHeldBalance() { return heldBalance; }
+    public void setHeldBalance(long heldBalance) { this.heldBalance = heldBalance; }
+
+    public WalletStatus getStatus() { return status; }
+    public void setStatus(WalletStatus status) { this.status = status; }
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     public List<Transaction> getSentTransactions() { return sentTransactions; }
     public void setSentTransactions(List<Transaction> sentTransactions) { this.sentTransactions = sentTransactions; }
 
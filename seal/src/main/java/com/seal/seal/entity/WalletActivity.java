@@ -0,0 +1,68 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Denormalised history: one row per wallet side of each transaction, written with it.
+// The indexes hold a wallet's rows in date order with the transaction id, so "last N"
+// is an index-only range scan with LIMIT instead of an OR over both wallet columns.
+// Rows are only inserted (natively, see WalletActivityRepository) and deleted.
+@Entity
+@Table(name = "wallet_activity", indexes = {
+    @Index(name = "idx_wallet_activity_recent", columnList = "wallet_id, created_at DESC, transaction_id DESC"),
+    @Index(name = "idx_wallet_activity_direction", columnList = "wallet_id, sent, created_at DESC, transaction_id DESC")
+})
+@IdClass(WalletActivity.Key.class)
+public class WalletActivity {
+    @Id
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // True on the sender's row
+    @Column(nullable = false)
+    private boolean sent;
+
+    public WalletActivity() {}
+
+    // Getters
+    public Long getTransactionId() { return transactionId; }
+
+    public Long getWalletId() { return walletId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public boolean isSent() { return sent; }
+
+    public static class Key implements Serializable {
+        private Long transactionId;
+        private Long walletId;
+
+        public Key() {}
+
+        public Key(Long transactionId, Long walletId) {
+            this.transactionId = transactionId;
+            this.walletId = walletId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(transactionId, key.transactionId) && Objects.equals(walletId, key.walletId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(transactionId, walletId);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "wallet_daily_summaries")
+@IdClass(WalletDailySummary.Key.class)
+public class WalletDailySummary {
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    @Column(name = "summary_date")
+    private LocalDate day;
+
+    @Column(name = "sent_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal sentTotal = BigDecimal.ZERO;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    @Column(name = "received_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal receivedTotal = BigDecimal.ZERO;
+
+    @Column(name = "received_count", nullable = false)
+    private long receivedCount;
+
+    public WalletDailySummary() {}
+
+    // Getters and Setters
+    public Long getWalletId() { return walletId; }
+    public void setWalletId(Long walletId) { this.walletId = walletId; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public BigDecimal getSentTotal() { return sentTotal; }
+    public void setSentTotal(BigDecimal sentTotal) { this.sentTotal = sentTotal; }
+
+    public long getSentCount() { return sentCount; }
+    public void setSentCount(long sentCount) { this.sentCount = sentCount; }
+
+    public BigDecimal getReceivedTotal() { return receivedTotal; }
+    public void setReceivedTotal(BigDecimal receivedTotal) { this.receivedTotal = receivedTotal; }
+
+    public long getReceivedCount() { return receivedCount; }
+    public void setReceivedCount(long receivedCount) { this.receivedCount = receivedCount; }
+
+    public static class Key implements Serializable {
+        private Long walletId;
+        private LocalDate day;
+
+        public Key() {}
+
+        public Key(Long walletId, LocalDate day) {
+            this.walletId = walletId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(walletId, key.walletId) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletId, day);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.seal.seal.entity;
+
+import jakarta.persistence.Converter;
+
+public enum WalletStatus implements CodedEnum {
+    ACTIVE(1),
+    FROZEN(2);
+
+    private final short code;
+
+    WalletStatus(int code) {
+        this.code = (short) code;
+    }
+
+    @Override
+    public short getCode() { return code; }
+
+    @Converter(autoApply = true)
+    public static class JpaConverter extends CodedEnumConverter<WalletStatus> {
+        public JpaConverter() { super(WalletStatus.class); }
+    }
+}
@@ -0,0 +1,13 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+// The hold was already captured, voided or expired (or belongs to someone else)
+public class HoldNotPendingException extends SealException {
+
+    public static final HoldNotPendingException INSTANCE = new HoldNotPendingException();
+
+    private HoldNotPendingException() {
+        super(HttpStatus.CONFLICT, "HOLD_NOT_PENDING", "Hold is no longer pending");
+    }
+}
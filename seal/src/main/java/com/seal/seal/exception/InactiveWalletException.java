@@ -0,0 +1,13 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InactiveWalletException extends SealException {
+
+    public static final InactiveWalletException SENDER = new InactiveWalletException("Sender wallet is not active");
+    public static final InactiveWalletException RECEIVER = new InactiveWalletException("Receiver wallet is not active");
+
+    private InactiveWalletException(String message) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "WALLET_INACTIVE", message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InsufficientBalanceException extends SealException {
+
+    public static final InsufficientBalanceException INSTANCE = new InsufficientBalanceException();
+
+    private InsufficientBalanceException() {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "INSUFFICIENT_BALANCE", "Insufficient balance");
+    }
+}
@@ -0,0 +1,14 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends SealException {
+
+    public static final InvalidRequestException SELF_TRANSFER = new InvalidRequestException("Cannot transfer to yourself");
+    public static final InvalidRequestException AMOUNT_PRECISION =
+            new InvalidRequestException("Amount must have at most 2 decimal places");
+
+    public InvalidRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, "INVALID_REQUEST", message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PhoneAlreadyRegisteredException extends SealException {
+
+    public static final PhoneAlreadyRegisteredException INSTANCE = new PhoneAlreadyRegisteredException();
+
+    private PhoneAlreadyRegisteredException() {
+        super(HttpStatus.CONFLICT, "PHONE_TAKEN", "Phone number already registered");
+    }
+}
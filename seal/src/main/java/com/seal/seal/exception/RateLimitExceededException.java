@@ -0,0 +1,15 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class RateLimitExceededException extends SealException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED", message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,10 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ResourceNotFoundException extends SealException {
+
+    public ResourceNotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, "NOT_FOUND", message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Base for expected business failures (insufficient balance, inactive wallet, ...).
+// These are part of normal traffic, so they skip stack trace capture and suppression:
+// throwing one costs about as much as allocating it. Fixed-message failures are
+// preallocated and rethrown as shared instances. GlobalExceptionHandler maps the status
+// and code onto the response.
+public class SealException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String code;
+
+    public SealException(HttpStatus status, String code, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.code = code;
+    }
+
+    public HttpStatus getStatus() { return status; }
+    public String getCode() { return code; }
+}
@@ -0,0 +1,13 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Optimistic-lock retries ran out; safe for the client to resubmit
+public class TransferConflictException extends SealException {
+
+    public static final TransferConflictException INSTANCE = new TransferConflictException();
+
+    private TransferConflictException() {
+        super(HttpStatus.CONFLICT, "TRANSFER_CONFLICT", "Transfer conflicted with concurrent updates, please retry");
+    }
+}
@@ -0,0 +1,15 @@
+package com.seal.seal.exception;
+
+import org.springframework.http.HttpStatus;
+
+// The sender hit a per-minute, per-hour or per-day transfer count or amount limit
+public class VelocityLimitExceededException extends SealException {
+
+    public static final VelocityLimitExceededException MINUTE = new VelocityLimitExceededException("minute");
+    public static final VelocityLimitExceededException HOUR = new VelocityLimitExceededException("hour");
+    public static final VelocityLimitExceededException DAY = new VelocityLimitExceededException("day");
+
+    private VelocityLimitExceededException(String window) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "VELOCITY_LIMIT", "Transfer limit per " + window + " exceeded");
+    }
+}
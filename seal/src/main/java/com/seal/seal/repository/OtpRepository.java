@@ -0,0 +1,36 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.Otp;
+import com.seal.seal.entity.OtpPurpose;
+import com.seal.seal.entity.OtpStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OtpRepository extends JpaRepository<Otp, Long> {
+
+    Optional<Otp> findFirstByUserIdAndPurposeAndStatusOrderByCreatedAtDesc(Long userId, OtpPurpose purpose, OtpStatus status);
+
+    Optional<Otp> findFirstByTransactionIdAndStatusOrderByCreatedAtDesc(Long transactionId, OtpStatus status);
+
+    // Conditional so a code can only be consumed once, even under concurrent verifies
+    @Modifying
+    @Query("UPDATE Otp o SET o.status = :status WHERE o.id = :id AND o.status = com.seal.seal.entity.OtpStatus.PENDING")
+    int markIfPending(@Param("id") Long id, @Param("status") OtpStatus status);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "otps"))
+    @Query(value = "DELETE FROM otps WHERE id IN " +
+                   "(SELECT id FROM otps WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,19 +1,45 @@
 package com.seal.seal.repository;
 
 import com.seal.seal.entity.RefreshToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+    // Compare-and-swap rotation: only succeeds while the old hash is current and the
+    // token's generation still matches the user's, so a replayed or revoked token loses
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.tokenHash = :newHash, rt.expiresAt = :expiresAt, rt.createdAt = :now " +
+           "WHERE rt.id = :id AND rt.tokenHash = :oldHash AND rt.revoked = false " +
+           "AND rt.generation = (SELECT u.tokenGeneration FROM User u WHERE u.id = rt.user.id)")
+    int rotate(@Param("id") Long id, @Param("oldHash") byte[] oldHash, @Param("newHash") byte[] newHash,
+               @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    // Purge batches run in their own short transactions so row locks stay brief
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+                   "(SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Transactional
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user.id = :userId")
-    void revokeAllUserTokens(Long userId);
-    
-    void deleteByUserIdAndRevokedTrue(Long userId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+                   "(SELECT rt.id FROM refresh_tokens rt JOIN users u ON u.id = rt.user_id " +
+                   "WHERE rt.revoked = TRUE OR rt.generation < u.token_generation LIMIT :limit)", nativeQuery = true)
+    int deleteRevokedBatch(@Param("limit") int limit);
 }
@@ -0,0 +1,52 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.ScheduledTransfer;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    // Due, unleased rows, oldest first. Lock timeout -2 is Hibernate's SKIP_LOCKED: rows
+    // another node is claiming right now are skipped instead of waited on.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT st FROM ScheduledTransfer st WHERE st.status = com.seal.seal.entity.ScheduledTransferStatus.ACTIVE " +
+           "AND st.nextRunAt <= :now AND (st.leaseUntil IS NULL OR st.leaseUntil < :now) ORDER BY st.nextRunAt")
+    List<ScheduledTransfer> findDueForUpdate(@Param("now") LocalDateTime now, Pageable page);
+
+    // Bumps the version so a run still holding an expired lease can no longer commit
+    @Modifying
+    @Query("UPDATE ScheduledTransfer st SET st.leaseOwner = :owner, st.leaseUntil = :leaseUntil, st.version = st.version + 1 " +
+           "WHERE st.id IN :ids AND (st.leaseUntil IS NULL OR st.leaseUntil < :now)")
+    int lease(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScheduledTransfer st SET st.leaseOwner = NULL, st.leaseUntil = NULL " +
+           "WHERE st.id = :id AND st.leaseOwner = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner);
+
+    // Everything a run needs in one round-trip
+    @Query("SELECT st FROM ScheduledTransfer st JOIN FETCH st.fromWallet fw JOIN FETCH fw.user " +
+           "JOIN FETCH st.toWallet tw JOIN FETCH tw.user WHERE st.id = :id")
+    Optional<ScheduledTransfer> findWithWallets(@Param("id") Long id);
+
+    @Query("SELECT st FROM ScheduledTransfer st JOIN FETCH st.toWallet tw JOIN FETCH tw.user " +
+           "WHERE st.fromWallet.user.id = :userId ORDER BY st.nextRunAt")
+    List<ScheduledTransfer> findByFromUserId(@Param("userId") Long userId);
+}
@@ -1,18 +1,79 @@
 package com.seal.seal.repository;
 
+import com.seal.seal.dto.TransactionResponse;
 import com.seal.seal.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     
-    @Query("SELECT t FROM Transaction t WHERE t.fromWallet.user.id = :userId OR t.toWallet.user.id = :userId ORDER BY t.createdAt DESC")
-    List<Transaction> findByUserId(@Param("userId") Long userId);
-    
-    List<Transaction> findByFromWalletUserIdOrderByCreatedAtDesc(Long userId);
-    List<Transaction> findByToWalletUserIdOrderByCreatedAtDesc(Long userId);
+    // History rows by id (from WalletActivityRepository), wallets and owners in the same
+    // query. Outer joins: a cross-shard leg has only one wallet on this shard.
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.fromWallet fw LEFT JOIN FETCH fw.user " +
+           "LEFT JOIN FETCH t.toWallet tw LEFT JOIN FETCH tw.user WHERE t.id IN :ids")
+    List<Transaction> findWithWalletsByIdIn(@Param("ids") List<Long> ids);
+
+    // Forward-only cursor for statement exports: DTO projection so nothing is held in the
+    // persistence context, and a fetch size so the driver streams instead of buffering.
+    // Filters on the wallet columns themselves, so each side is a range scan of its
+    // (wallet, created_at) index; the joins only fetch the phones.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.seal.seal.dto.TransactionResponse(t.id, COALESCE(fu.phone, t.counterpartyPhone), " +
+           "COALESCE(tu.phone, t.counterpartyPhone), t.amount, " +
+           "CASE WHEN t.fromWallet.id = :walletId THEN 'SENT' ELSE 'RECEIVED' END, t.status, t.createdAt) " +
+           "FROM Transaction t LEFT JOIN t.fromWallet fw LEFT JOIN fw.user fu LEFT JOIN t.toWallet tw LEFT JOIN tw.user tu " +
+           "WHERE (t.fromWallet.id = :walletId OR t.toWallet.id = :walletId) " +
+           "AND t.createdAt >= :from AND t.createdAt < :to ORDER BY t.createdAt, t.id")
+    Stream<TransactionResponse> streamStatement(@Param("walletId") Long walletId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    boolean existsBySagaId(Long sagaId);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.status = com.seal.seal.entity.TransactionStatus.PENDING " +
+           "AND t.holdExpiresAt <= :now ORDER BY t.holdExpiresAt")
+    List<Long> findExpiredHoldIds(@Param("now") LocalDateTime now, Pageable page);
+
+    // Archival candidates: settled rows created before the cutoff that no OTP points at, in
+    // id order after afterId, with both wallet owners fetched for the archive row
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.fromWallet fw LEFT JOIN FETCH fw.user " +
+           "LEFT JOIN FETCH t.toWallet tw LEFT JOIN FETCH tw.user " +
+           "WHERE t.id > :afterId AND t.createdAt < :cutoff " +
+           "AND t.status <> com.seal.seal.entity.TransactionStatus.PENDING " +
+           "AND NOT EXISTS (SELECT o.id FROM Otp o WHERE o.transaction = t) ORDER BY t.id")
+    List<Transaction> findArchivable(@Param("afterId") long afterId, @Param("cutoff") LocalDateTime cutoff,
+                                     Pageable page);
+
+    // Bulk delete of archived rows; evicts the cache region
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteArchived(@Param("ids") List<Long> ids);
+
+    // Velocity window seed: what a wallet sent during the last day. Voided and expired holds
+    // count, as they did in the live windows when they were authorized.
+    @Query("SELECT t.createdAt AS createdAt, t.amount AS amount FROM Transaction t " +
+           "WHERE t.fromWallet.id = :walletId AND t.createdAt >= :since " +
+           "AND t.status <> com.seal.seal.entity.TransactionStatus.FAILED")
+    List<SentAmount> findSentSince(@Param("walletId") Long walletId, @Param("since") LocalDateTime since);
+
+    interface SentAmount {
+        LocalDateTime getCreatedAt();
+        long getAmount();
+    }
 }
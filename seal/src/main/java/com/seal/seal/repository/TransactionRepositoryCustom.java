@@ -0,0 +1,10 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.Transaction;
+import java.util.Optional;
+
+public interface TransactionRepositoryCustom {
+
+    // Locks the row and re-reads it, within the caller's transaction
+    Optional<Transaction> findByIdForUpdate(Long id);
+}
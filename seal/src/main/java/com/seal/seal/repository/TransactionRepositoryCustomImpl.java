@@ -0,0 +1,25 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A locking query would hand back an instance already in the persistence context (or
+    // the second-level cache) with its old state; refresh always reads the locked row.
+    @Override
+    public Optional<Transaction> findByIdForUpdate(Long id) {
+        Transaction transaction = entityManager.find(Transaction.class, id);
+        if (transaction == null) {
+            return Optional.empty();
+        }
+        entityManager.refresh(transaction, LockModeType.PESSIMISTIC_WRITE);
+        return Optional.of(transaction);
+    }
+}
@@ -2,11 +2,30 @@ package com.seal.seal.repository;
 
 import com.seal.seal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByPhone(String phone);
-    boolean existsByPhone(String phone);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    // PostgreSQL only: creates the user and its wallet in one round trip. The unique index
+    // on phone settles concurrent sign-ups; the loser gets no row back instead of an error.
+    @Query(value = "WITH new_user AS (" +
+                   "INSERT INTO users (phone, password, role, status, token_generation, created_at, updated_at) " +
+                   "VALUES (:phone, :password, :role, :status, 0, :now, :now) " +
+                   "ON CONFLICT (phone) DO NOTHING RETURNING id) " +
+                   "INSERT INTO wallets (user_id, balance, held_balance, status, updated_at, version) " +
+                   "SELECT id, 0, 0, :walletStatus, :now, 0 FROM new_user RETURNING user_id",
+           nativeQuery = true)
+    @Transactional
+    Optional<Long> insertWithWallet(@Param("phone") String phone, @Param("password") String password,
+                                    @Param("role") short role, @Param("status") short status,
+                                    @Param("walletStatus") short walletStatus, @Param("now") LocalDateTime now);
+
+    @Query("SELECT u.tokenGeneration FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenGenerationById(@Param("userId") Long userId);
 }
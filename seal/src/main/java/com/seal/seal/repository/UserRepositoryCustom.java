@@ -0,0 +1,10 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.User;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // Natural-id lookup: served from the second-level cache when warm
+    Optional<User> findByPhone(String phone);
+}
@@ -0,0 +1,23 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A derived findByPhone would be a JPQL query, which always goes to the database.
+    // The natural-id API resolves phone -> id and id -> user through the cache regions.
+    // Unwrapping the shared EntityManager outside a transaction yields an already-closed session
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByPhone(String phone) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(phone);
+    }
+}
@@ -0,0 +1,54 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.WalletActivity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WalletActivityRepository extends JpaRepository<WalletActivity, WalletActivity.Key> {
+
+    // Index-only scans of idx_wallet_activity_recent / _direction, checked by
+    // WalletActivityRepositoryTests. The ORDER BY repeats the equality columns so that it is
+    // a prefix of the index, which H2 needs to skip the sort; PostgreSQL ignores them.
+    String RECENT = "SELECT transaction_id FROM wallet_activity WHERE wallet_id = :walletId " +
+                    "ORDER BY wallet_id, created_at DESC, transaction_id DESC LIMIT :limit";
+    String RECENT_BY_DIRECTION = "SELECT transaction_id FROM wallet_activity WHERE wallet_id = :walletId " +
+                                 "AND sent = :sent ORDER BY wallet_id, sent, created_at DESC, transaction_id DESC LIMIT :limit";
+
+    @Query(value = RECENT, nativeQuery = true)
+    List<Long> findRecentTransactionIds(@Param("walletId") Long walletId, @Param("limit") int limit);
+
+    @Query(value = RECENT_BY_DIRECTION, nativeQuery = true)
+    List<Long> findRecentTransactionIds(@Param("walletId") Long walletId, @Param("sent") boolean sent,
+                                        @Param("limit") int limit);
+
+    // Native DML evicts every second-level cache region unless it names the tables it touches
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_activity"))
+    @Query(value = "INSERT INTO wallet_activity (transaction_id, wallet_id, created_at, sent) " +
+                   "VALUES (:transactionId, :walletId, :createdAt, :sent)", nativeQuery = true)
+    int insert(@Param("transactionId") Long transactionId, @Param("walletId") Long walletId,
+               @Param("createdAt") LocalDateTime createdAt, @Param("sent") boolean sent);
+
+    // Both sides of a transfer in one statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_activity"))
+    @Query(value = "INSERT INTO wallet_activity (transaction_id, wallet_id, created_at, sent) " +
+                   "VALUES (:transactionId, :fromWalletId, :createdAt, TRUE), " +
+                   "(:transactionId, :toWalletId, :createdAt, FALSE)", nativeQuery = true)
+    int insertTransfer(@Param("transactionId") Long transactionId, @Param("fromWalletId") Long fromWalletId,
+                       @Param("toWalletId") Long toWalletId, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_activity"))
+    @Query(value = "DELETE FROM wallet_activity WHERE transaction_id IN (:transactionIds)", nativeQuery = true)
+    int deleteByTransactionIds(@Param("transactionIds") List<Long> transactionIds);
+}
@@ -0,0 +1,39 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.WalletDailySummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WalletDailySummaryRepository extends JpaRepository<WalletDailySummary, WalletDailySummary.Key> {
+
+    List<WalletDailySummary> findByWalletIdAndDayBetweenOrderByDay(Long walletId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("UPDATE WalletDailySummary s SET s.sentTotal = s.sentTotal + :amount, s.sentCount = s.sentCount + 1 " +
+           "WHERE s.walletId = :walletId AND s.day = :day")
+    int addSent(@Param("walletId") Long walletId, @Param("day") LocalDate day, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE WalletDailySummary s SET s.receivedTotal = s.receivedTotal + :amount, s.receivedCount = s.receivedCount + 1 " +
+           "WHERE s.walletId = :walletId AND s.day = :day")
+    int addReceived(@Param("walletId") Long walletId, @Param("day") LocalDate day, @Param("amount") BigDecimal amount);
+
+    // Native DML evicts every second-level cache region unless it names the tables it touches
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_daily_summaries"))
+    @Query(value = "INSERT INTO wallet_daily_summaries (wallet_id, summary_date, sent_total, sent_count, received_total, received_count) " +
+                   "VALUES (:walletId, :day, :sentTotal, :sentCount, :receivedTotal, :receivedCount)", nativeQuery = true)
+    int insert(@Param("walletId") Long walletId, @Param("day") LocalDate day,
+               @Param("sentTotal") BigDecimal sentTotal, @Param("sentCount") long sentCount,
+               @Param("receivedTotal") BigDecimal receivedTotal, @Param("receivedCount") long receivedCount);
+}
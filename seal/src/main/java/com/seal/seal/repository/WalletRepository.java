@@ -2,6 +2,8 @@ package com.seal.seal.repository;
 
 import com.seal.seal.entity.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -9,4 +11,16 @@ import java.util.Optional;
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     Optional<Wallet> findByUserId(Long userId);
     Optional<Wallet> findByUserPhone(String phone);
+
+    @Query("SELECT w.id FROM Wallet w WHERE w.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    // Cheap conditional-GET check: two columns, no entity or user loaded
+    @Query("SELECT w.id AS id, w.version AS version FROM Wallet w WHERE w.user.phone = :phone")
+    Optional<WalletVersion> findVersionByUserPhone(@Param("phone") String phone);
+
+    interface WalletVersion {
+        Long getId();
+        long getVersion();
+    }
 }
@@ -0,0 +1,131 @@
+package com.seal.seal.security;
+
+import com.seal.seal.util.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Sheds load before a request takes a Tomcat thread into the service layer. Each
+// endpoint has its own adaptive budget; history reads are also shed while transfers
+// are close to their limit, so transfers are the last thing to be rejected.
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    public static final String TRANSFER_PATH = "/transactions/transfer";
+    public static final String[] HISTORY_PATHS = {"/transactions/history", "/transactions/sent", "/transactions/received"};
+
+    @Value("${seal.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.admission.transfer.initial-limit:50}")
+    private int transferInitialLimit;
+
+    @Value("${seal.admission.transfer.min-limit:5}")
+    private int transferMinLimit;
+
+    @Value("${seal.admission.transfer.max-limit:200}")
+    private int transferMaxLimit;
+
+    @Value("${seal.admission.transfer.latency-threshold-ms:500}")
+    private long transferLatencyThresholdMs;
+
+    @Value("${seal.admission.history.initial-limit:20}")
+    private int historyInitialLimit;
+
+    @Value("${seal.admission.history.min-limit:2}")
+    private int historyMinLimit;
+
+    @Value("${seal.admission.history.max-limit:100}")
+    private int historyMaxLimit;
+
+    @Value("${seal.admission.history.latency-threshold-ms:300}")
+    private long historyLatencyThresholdMs;
+
+    @Value("${seal.admission.shed-utilization:0.8}")
+    private double shedUtilization;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AdaptiveConcurrencyLimiter transferLimiter;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new HashMap<>();
+
+    @PostConstruct
+    void initLimiters() {
+        transferLimiter = new AdaptiveConcurrencyLimiter(transferInitialLimit, transferMinLimit, transferMaxLimit,
+                TimeUnit.MILLISECONDS.toNanos(transferLatencyThresholdMs));
+        register(TRANSFER_PATH, transferLimiter);
+        for (String path : HISTORY_PATHS) {
+            register(path, new AdaptiveConcurrencyLimiter(historyInitialLimit, historyMinLimit, historyMaxLimit,
+                    TimeUnit.MILLISECONDS.toNanos(historyLatencyThresholdMs)));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        AdaptiveConcurrencyLimiter limiter = limiters.get(path);
+        if (limiter == null) {
+            return true;
+        }
+
+        boolean sheddable = limiter != transferLimiter;
+        if (sheddable && transferLimiter.utilization() >= shedUtilization) {
+            limiter.reject();
+            return shed(response);
+        }
+        if (!limiter.tryAcquire()) {
+            return shed(response);
+        }
+
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter != null) {
+            long latency = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+            limiter.release(latency, ex == null && response.getStatus() < 500);
+        }
+    }
+
+    private boolean shed(HttpServletResponse response) throws Exception {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Server is busy, please retry\"}");
+        return false;
+    }
+
+    private void register(String path, AdaptiveConcurrencyLimiter limiter) {
+        limiters.put(path, limiter);
+        Gauge.builder("seal.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("endpoint", path).register(meterRegistry);
+        Gauge.builder("seal.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("endpoint", path).register(meterRegistry);
+        FunctionCounter.builder("seal.admission.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tag("endpoint", path).register(meterRegistry);
+    }
+}
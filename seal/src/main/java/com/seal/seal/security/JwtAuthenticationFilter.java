@@ -1,7 +1,7 @@
 package com.seal.seal.security;
 
-import com.seal.seal.service.UserService;
 import com.seal.seal.util.JwtUtil;
+import com.seal.seal.util.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +11,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
@@ -20,9 +21,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    // Typed as the interface so the lazy proxy is a JDK proxy; a class-based (CGLIB) lazy
+    // proxy fails to instantiate when the context runs from AOT-generated code
     @Autowired
     @Lazy
-    private UserService userService;
+    private UserDetailsService userService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -34,17 +37,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
+            RequestTimings.enter("jwt");
             try {
                 phone = jwtUtil.getPhoneFromToken(jwtToken);
             } catch (Exception e) {
                 logger.error("Unable to get JWT Token", e);
+            } finally {
+                RequestTimings.exit();
             }
         }
 
         if (phone != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userService.loadUserByUsername(phone);
 
-            if (jwtUtil.validateToken(jwtToken) && !jwtUtil.isTokenExpired(jwtToken)) {
+            boolean valid;
+            RequestTimings.enter("jwt");
+            try {
+                valid = jwtUtil.validateToken(jwtToken) && !jwtUtil.isTokenExpired(jwtToken);
+            } finally {
+                RequestTimings.exit();
+            }
+            if (valid) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,112 @@
+package com.seal.seal.security;
+
+import com.seal.seal.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Runs after JwtAuthenticationFilter so authenticated calls are limited per phone
+// and anonymous ones per client IP
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Value("${seal.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${seal.rate-limit.auth.capacity:10}")
+    private int authCapacity;
+
+    @Value("${seal.rate-limit.auth.refill-millis:6000}")
+    private long authRefillMillis;
+
+    @Value("${seal.rate-limit.transfer.capacity:20}")
+    private int transferCapacity;
+
+    @Value("${seal.rate-limit.transfer.refill-millis:1000}")
+    private long transferRefillMillis;
+
+    @Value("${seal.rate-limit.default.capacity:100}")
+    private int defaultCapacity;
+
+    @Value("${seal.rate-limit.default.refill-millis:50}")
+    private long defaultRefillMillis;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TokenBucketRateLimiter authLimiter;
+    private TokenBucketRateLimiter transferLimiter;
+    private TokenBucketRateLimiter defaultLimiter;
+
+    @PostConstruct
+    void initLimiters() {
+        authLimiter = new TokenBucketRateLimiter(authCapacity, Duration.ofMillis(authRefillMillis), maxKeys);
+        transferLimiter = new TokenBucketRateLimiter(transferCapacity, Duration.ofMillis(transferRefillMillis), maxKeys);
+        defaultLimiter = new TokenBucketRateLimiter(defaultCapacity, Duration.ofMillis(defaultRefillMillis), maxKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || path(request).startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = path(request);
+        String endpointClass;
+        TokenBucketRateLimiter limiter;
+        if (path.startsWith("/auth/")) {
+            endpointClass = "auth";
+            limiter = authLimiter;
+        } else if (path.equals("/transactions/transfer") || path.startsWith("/transactions/holds")) {
+            endpointClass = "transfer";
+            limiter = transferLimiter;
+        } else {
+            endpointClass = "default";
+            limiter = defaultLimiter;
+        }
+
+        long waitNanos = limiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            meterRegistry.counter("seal.ratelimit.rejected", "endpoint", endpointClass).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // The client's address behind a trusted proxy (server.forward-headers-strategy)
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
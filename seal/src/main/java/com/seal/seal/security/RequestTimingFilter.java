@@ -0,0 +1,86 @@
+package com.seal.seal.security;
+
+import com.seal.seal.util.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Runs ahead of Spring Security. Gives each request a correlation id, taken from the
+// caller's X-Correlation-Id when it is well-formed and generated otherwise, which goes
+// into the MDC for every log line and back out on the response. Also opens the request's
+// RequestTimings, which ServerTimingAdvice turns into a Server-Timing header; requests
+// slower than slow-ms are logged with their phase breakdown.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    public static final String CORRELATION_HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    // Echoed into headers and logs, so nothing that could break either
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Value("${seal.request-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.request-timing.slow-ms:500}")
+    private long slowMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter slowCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        slowCounter = Counter.builder("seal.http.slow-requests")
+                .description("Requests slower than seal.request-timing.slow-ms")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String correlationId = request.getHeader(CORRELATION_HEADER);
+        if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+            correlationId = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+        }
+        MDC.put(MDC_KEY, correlationId);
+        response.setHeader(CORRELATION_HEADER, correlationId);
+
+        RequestTimings timings = enabled ? RequestTimings.begin() : null;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (timings != null) {
+                RequestTimings.end();
+                timings.closeAll();
+                long totalNanos = timings.elapsedNanos();
+                if (totalNanos >= slowMs * 1_000_000) {
+                    slowCounter.increment();
+                    logger.warn("Slow request {} {} -> {} in {} ms: {}", request.getMethod(), request.getRequestURI(),
+                            response.getStatus(), totalNanos / 1_000_000, timings.toServerTiming(totalNanos));
+                }
+            }
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
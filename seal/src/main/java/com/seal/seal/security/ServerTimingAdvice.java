@@ -0,0 +1,43 @@
+package com.seal.seal.security;
+
+import com.seal.seal.util.RequestTimings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Headers have to be set before the body is written, so the breakdown is taken just
+// before serialization; serialization itself is timed as "write" and only appears in
+// the slow-request log.
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Value("${seal.request-timing.server-timing:true}")
+    private boolean serverTiming;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            if (serverTiming) {
+                response.getHeaders().add(SERVER_TIMING_HEADER, timings.toServerTiming(timings.elapsedNanos()));
+            }
+            // Closed by RequestTimingFilter once the response is written
+            RequestTimings.enter("write");
+        }
+        return body;
+    }
+}
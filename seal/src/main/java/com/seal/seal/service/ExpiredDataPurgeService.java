@@ -0,0 +1,88 @@
+package com.seal.seal.service;
+
+import com.seal.seal.repository.OtpRepository;
+import com.seal.seal.repository.RefreshTokenRepository;
+import com.seal.seal.util.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+@Service
+public class ExpiredDataPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredDataPurgeService.class);
+
+    @Value("${seal.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${seal.purge.max-batches:1000}")
+    private int maxBatches;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${seal.purge.interval-ms:3600000}",
+               initialDelayString = "${seal.purge.interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        shardRouter.forEachShard(() -> {
+            purgeRefreshTokens();
+            purgeOtps();
+        });
+    }
+
+    public long purgeRefreshTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        return purge("refresh_tokens", limit -> refreshTokenRepository.deleteExpiredBatch(now, limit))
+             + purge("refresh_tokens", refreshTokenRepository::deleteRevokedBatch);
+    }
+
+    public long purgeOtps() {
+        LocalDateTime now = LocalDateTime.now();
+        return purge("otps", limit -> otpRepository.deleteExpiredBatch(now, limit));
+    }
+
+    // Deletes in batches of batchSize, each in its own transaction, until a short batch
+    // signals the backlog is drained or maxBatches caps this run
+    private long purge(String table, IntUnaryOperator deleteBatch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long total = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.applyAsInt(batchSize);
+            total += deleted;
+            batches++;
+        } while (deleted == batchSize && batches < maxBatches);
+
+        long nanos = sample.stop(meterRegistry.timer("seal.purge.duration", "table", table));
+        Counter.builder("seal.purge.rows").tag("table", table).register(meterRegistry).increment(total);
+
+        if (total > 0) {
+            logger.info("Purged {} rows from {} in {} batches ({} ms)", total, table, batches, nanos / 1_000_000);
+        }
+        return total;
+    }
+}
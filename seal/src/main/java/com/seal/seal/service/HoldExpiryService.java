@@ -0,0 +1,93 @@
+package com.seal.seal.service;
+
+import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.util.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Returns the funds of holds nobody captured or voided in time. Each hold is released in
+// its own short transaction, so the sweep never holds more than one wallet lock at once.
+@Service
+public class HoldExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryService.class);
+
+    @Value("${seal.transfer.hold.sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.transfer.hold.sweep.batch-size:200}")
+    private int batchSize;
+
+    @Value("${seal.transfer.hold.sweep.max-batches:50}")
+    private int maxBatches;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter expiredCounter;
+    private Timer sweepTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        expiredCounter = Counter.builder("seal.holds.expired").register(meterRegistry);
+        sweepTimer = Timer.builder("seal.holds.sweep.duration").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${seal.transfer.hold.sweep.interval-ms:30000}",
+               initialDelayString = "${seal.transfer.hold.sweep.interval-ms:30000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        shardRouter.forEachShard(this::releaseExpired);
+    }
+
+    // Batches until a short batch signals the backlog is drained or maxBatches caps this run
+    public long releaseExpired() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long released = 0;
+        int batches = 0;
+        List<Long> ids;
+        do {
+            ids = transactionRepository.findExpiredHoldIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (Long id : ids) {
+                try {
+                    if (transactionService.expireHold(id)) {
+                        released++;
+                    }
+                } catch (RuntimeException e) {
+                    // Left pending; the next sweep tries again
+                    logger.warn("Could not release expired hold {}: {}", id, e.getMessage());
+                }
+            }
+            batches++;
+        } while (ids.size() == batchSize && batches < maxBatches);
+
+        long nanos = sample.stop(sweepTimer);
+        expiredCounter.increment(released);
+        if (released > 0) {
+            logger.info("Released {} expired holds in {} batches ({} ms)", released, batches, nanos / 1_000_000);
+        }
+        return released;
+    }
+}
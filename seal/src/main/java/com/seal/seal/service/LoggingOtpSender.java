@@ -0,0 +1,19 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Otp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Local stub until an SMS gateway is wired in; register the real sender as @Primary
+@Component
+public class LoggingOtpSender implements OtpSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOtpSender.class);
+
+    @Override
+    public void send(String phone, Otp otp) {
+        logger.info("Sending {} OTP to {}", otp.getPurpose(), phone);
+        logger.debug("OTP for {}: {}", phone, otp.getOtpCode());
+    }
+}
@@ -0,0 +1,168 @@
+package com.seal.seal.service;
+
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Server-sent events for balance changes and incoming transfers. A subscriber is an
+// async request parked in the registry: it holds no Tomcat thread and no DB connection.
+// Writes go through virtual threads so a slow client never blocks a transfer commit
+// or the heartbeat sweep.
+@Service
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    public static final String EVENT_BALANCE = "balance";
+    public static final String EVENT_TRANSFER_RECEIVED = "transfer-received";
+
+    @Value("${seal.notifications.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${seal.notifications.max-per-user:5}")
+    private int maxPerUser;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("seal.notifications.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("seal.notifications.dropped")
+                .description("Subscribers dropped after a failed write")
+                .register(meterRegistry);
+    }
+
+    // Streams are open requests, so graceful shutdown would wait out its whole timeout on
+    // them. Closing them when the context starts closing lets the drain finish with the
+    // real in-flight requests; EventSource clients reconnect to another node.
+    @EventListener(ContextClosedEvent.class)
+    void closeStreams() {
+        emitters.values().forEach(set -> set.forEach(SseEmitter::complete));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closeStreams();
+        dispatcher.shutdown();
+    }
+
+    public SseEmitter subscribe(String phone) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.compute(phone, (key, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+            }
+            if (set.size() >= maxPerUser) {
+                throw new RateLimitExceededException("Too many open notification streams", 60);
+            }
+            set.add(emitter);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(phone, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(phone, emitter));
+        // Commits the response headers right away so the client knows the stream is live
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            remove(phone, emitter);
+            throw new RuntimeException("Could not open notification stream", e);
+        }
+        logger.debug("Notification stream opened for user: {}", phone);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // The wallet version doubles as the event id, so clients can drop a balance event
+    // that arrives after a newer one.
+    @TransactionalEventListener
+    public void onTransferCompleted(TransferCompletedEvent event) {
+        send(event.getFromWallet().getUserPhone(), () -> SseEmitter.event()
+                .name(EVENT_BALANCE)
+                .id(Long.toString(event.getFromVersion()))
+                .data(event.getFromWallet()));
+        send(event.getToWallet().getUserPhone(), () -> SseEmitter.event()
+                .name(EVENT_BALANCE)
+                .id(Long.toString(event.getToVersion()))
+                .data(event.getToWallet()));
+
+        TransactionResponse sent = event.getTransaction();
+        TransactionResponse received = new TransactionResponse(sent.getId(), sent.getFromPhone(), sent.getToPhone(),
+                sent.getAmount(), "RECEIVED", sent.getStatus(), sent.getCreatedAt());
+        send(event.getToWallet().getUserPhone(), () -> SseEmitter.event()
+                .name(EVENT_TRANSFER_RECEIVED)
+                .data(received));
+    }
+
+    // Keeps idle streams alive through proxies and finds dead connections, which only
+    // show up as write failures.
+    @Scheduled(fixedRateString = "${seal.notifications.heartbeat-ms:25000}",
+               initialDelayString = "${seal.notifications.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (String phone : emitters.keySet()) {
+            send(phone, () -> SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    // Event builders are single-use, so each emitter gets its own
+    private void send(String phone, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<SseEmitter> set = emitters.get(phone);
+        if (set == null) {
+            return;
+        }
+        for (SseEmitter emitter : set) {
+            dispatcher.execute(() -> {
+                try {
+                    emitter.send(event.get());
+                } catch (Exception e) {
+                    logger.debug("Dropping notification stream for user {}: {}", phone, e.getMessage());
+                    droppedCounter.increment();
+                    remove(phone, emitter);
+                    emitter.completeWithError(e);
+                }
+            });
+        }
+    }
+
+    private void remove(String phone, SseEmitter emitter) {
+        emitters.computeIfPresent(phone, (key, set) -> {
+            if (set.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
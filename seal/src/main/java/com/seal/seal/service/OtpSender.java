@@ -0,0 +1,7 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Otp;
+
+public interface OtpSender {
+    void send(String phone, Otp otp);
+}
@@ -0,0 +1,150 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Otp;
+import com.seal.seal.entity.OtpPurpose;
+import com.seal.seal.entity.OtpStatus;
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.User;
+import com.seal.seal.exception.RateLimitExceededException;
+import com.seal.seal.repository.OtpRepository;
+import com.seal.seal.repository.UserRepository;
+import com.seal.seal.util.ShardKey;
+import com.seal.seal.util.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class OtpService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpService.class);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${seal.otp.expiration-seconds:300}")
+    private long expirationSeconds;
+
+    @Value("${seal.otp.issue.capacity:3}")
+    private int issueCapacity;
+
+    @Value("${seal.otp.issue.refill-seconds:60}")
+    private long issueRefillSeconds;
+
+    @Value("${seal.otp.verify.capacity:5}")
+    private int verifyCapacity;
+
+    @Value("${seal.otp.verify.refill-seconds:60}")
+    private long verifyRefillSeconds;
+
+    @Value("${seal.otp.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OtpSender otpSender;
+
+    private TokenBucketRateLimiter issueLimiter;
+    private TokenBucketRateLimiter verifyLimiter;
+
+    @PostConstruct
+    void initLimiters() {
+        issueLimiter = new TokenBucketRateLimiter(issueCapacity, Duration.ofSeconds(issueRefillSeconds), maxKeys);
+        verifyLimiter = new TokenBucketRateLimiter(verifyCapacity, Duration.ofSeconds(verifyRefillSeconds), maxKeys);
+    }
+
+    // Empty when the phone is not registered; callers should not reveal which
+    @Transactional
+    public Optional<Otp> issue(@ShardKey String phone, OtpPurpose purpose) {
+        return issue(phone, purpose, null);
+    }
+
+    // TRANSACTION codes can be bound to the hold they confirm
+    @Transactional
+    public Optional<Otp> issue(@ShardKey String phone, OtpPurpose purpose, Transaction transaction) {
+        checkRateLimit(issueLimiter, purpose + ":" + phone, "Too many OTP requests");
+
+        Optional<User> user = userRepository.findByPhone(phone);
+        if (user.isEmpty()) {
+            logger.warn("OTP requested for unknown phone: {}", phone);
+            return Optional.empty();
+        }
+
+        String code = String.format("%06d", secureRandom.nextInt(1_000_000));
+        Otp otp = new Otp(user.get(), code, purpose, LocalDateTime.now().plusSeconds(expirationSeconds));
+        otp.setTransaction(transaction);
+        otp = otpRepository.save(otp);
+        otpSender.send(phone, otp);
+
+        logger.info("Issued {} OTP for user: {}", purpose, phone);
+        return Optional.of(otp);
+    }
+
+    // Returns the consumed OTP, or empty if the code is wrong, expired or already used
+    @Transactional
+    public Optional<Otp> verify(@ShardKey String phone, OtpPurpose purpose, String code) {
+        checkRateLimit(verifyLimiter, purpose + ":" + phone, "Too many OTP attempts");
+
+        Optional<Otp> pending = userRepository.findByPhone(phone)
+                .flatMap(user -> otpRepository.findFirstByUserIdAndPurposeAndStatusOrderByCreatedAtDesc(
+                        user.getId(), purpose, OtpStatus.PENDING));
+        return consume(pending, phone, purpose, code);
+    }
+
+    // Checks the code issued for one hold, so several holds can await confirmation at once
+    @Transactional
+    public Optional<Otp> verifyForTransaction(@ShardKey String phone, Long transactionId, String code) {
+        checkRateLimit(verifyLimiter, OtpPurpose.TRANSACTION + ":" + phone, "Too many OTP attempts");
+
+        Optional<Otp> pending = otpRepository.findFirstByTransactionIdAndStatusOrderByCreatedAtDesc(
+                        transactionId, OtpStatus.PENDING)
+                .filter(otp -> otp.getUser().getPhone().equals(phone));
+        return consume(pending, phone, OtpPurpose.TRANSACTION, code);
+    }
+
+    private Optional<Otp> consume(Optional<Otp> pending, String phone, OtpPurpose purpose, String code) {
+        if (pending.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Otp otp = pending.get();
+        if (otp.getExpiresAt() != null && LocalDateTime.now().isAfter(otp.getExpiresAt())) {
+            otpRepository.markIfPending(otp.getId(), OtpStatus.EXPIRED);
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(otp.getOtpCode().getBytes(StandardCharsets.UTF_8),
+                                   code.getBytes(StandardCharsets.UTF_8))) {
+            logger.warn("Invalid {} OTP for user: {}", purpose, phone);
+            return Optional.empty();
+        }
+        if (otpRepository.markIfPending(otp.getId(), OtpStatus.VERIFIED) == 0) {
+            return Optional.empty();
+        }
+
+        logger.info("Verified {} OTP for user: {}", purpose, phone);
+        return Optional.of(otp);
+    }
+
+    private void checkRateLimit(TokenBucketRateLimiter limiter, String key, String message) {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            throw new RateLimitExceededException(message + ". Try again in " + retryAfter + " seconds", retryAfter);
+        }
+    }
+}
@@ -3,40 +3,69 @@ package com.seal.seal.service;
 import com.seal.seal.entity.RefreshToken;
 import com.seal.seal.entity.User;
 import com.seal.seal.repository.RefreshTokenRepository;
+import com.seal.seal.repository.UserRepository;
+import com.seal.seal.util.ShardContext;
+import com.seal.seal.util.ShardKey;
+import com.seal.seal.util.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RefreshTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
 
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // userId -> current token generation; a cache of users.token_generation
+    private final Map<Long, Integer> tokenGenerations = new ConcurrentHashMap<>();
+
     @Value("${jwt.refresh.expiration:604800000}") // 7 days default
     private Long refreshTokenExpiration;
 
+    @Value("${jwt.refresh.generation-cache-size:100000}")
+    private int generationCacheSize;
+
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
-    public RefreshToken createRefreshToken(User user) {
-        String token = UUID.randomUUID().toString();
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    public RefreshToken createRefreshToken(@ShardKey(ShardKey.Type.ID) User user) {
+        String token = generateToken();
         LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000);
         
-        RefreshToken refreshToken = new RefreshToken(token, user, expiresAt);
+        RefreshToken refreshToken = new RefreshToken(token, hash(token), user,
+                currentGeneration(user.getId()), expiresAt);
         RefreshToken saved = refreshTokenRepository.save(refreshToken);
         
         logger.info("Created refresh token for user: {}", user.getPhone());
         return saved;
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public Optional<RefreshToken> findByToken(@ShardKey(ShardKey.Type.REFRESH_TOKEN) String token) {
+        return refreshTokenRepository.findByTokenHash(hash(token));
     }
 
     public RefreshToken verifyExpiration(RefreshToken token) {
@@ -47,15 +76,89 @@ public class RefreshTokenService {
         return token;
     }
 
+    // Rejections must not roll back the expired-token delete in verifyExpiration
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public RefreshToken rotate(@ShardKey(ShardKey.Type.REFRESH_TOKEN) String token) {
+        byte[] oldHash = hash(token);
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(oldHash)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        verifyExpiration(refreshToken);
+
+        Long userId = refreshToken.getUser().getId();
+        if (refreshToken.isRevoked() || refreshToken.getGeneration() != currentGeneration(userId)) {
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+
+        // Rotate in place: one UPDATE instead of delete + insert
+        String newToken = generateToken();
+        byte[] newHash = hash(newToken);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(refreshTokenExpiration / 1000);
+
+        if (refreshTokenRepository.rotate(refreshToken.getId(), oldHash, newHash, expiresAt, now) == 0) {
+            // Lost a race with another rotation or a revocation on another node
+            tokenGenerations.remove(userId);
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        RefreshToken rotated = new RefreshToken(newToken, newHash, refreshToken.getUser(),
+                refreshToken.getGeneration(), expiresAt);
+        rotated.setId(refreshToken.getId());
+        rotated.setCreatedAt(now);
+
+        logger.debug("Rotated refresh token: {}", refreshToken.getId());
+        return rotated;
+    }
+
     @Transactional
-    public void revokeUserTokens(Long userId) {
+    public void revokeUserTokens(@ShardKey(ShardKey.Type.ID) Long userId) {
         logger.info("Revoking all refresh tokens for user: {}", userId);
-        refreshTokenRepository.revokeAllUserTokens(userId);
+        // Through the entity rather than a bulk UPDATE, which would evict every cached user
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setTokenGeneration(user.getTokenGeneration() + 1);
+        // Evicted once the new generation is visible: evicting before the commit lets a
+        // concurrent lookup cache the old one again, and tokens issued from it would be
+        // rejected. The rotate UPDATE re-checks the generation in the database, so a stale
+        // cache entry on another node can only delay the fast-path rejection.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenGenerations.remove(userId);
+            }
+        });
     }
 
-    @Transactional
-    public void deleteToken(RefreshToken token) {
-        refreshTokenRepository.delete(token);
-        logger.debug("Deleted refresh token: {}", token.getId());
+    private int currentGeneration(Long userId) {
+        Integer generation = tokenGenerations.get(userId);
+        if (generation != null) {
+            return generation;
+        }
+
+        generation = userRepository.findTokenGenerationById(userId).orElse(0);
+        if (tokenGenerations.size() >= generationCacheSize) {
+            // Approximate bound; entries are cheap to reload
+            tokenGenerations.clear();
+        }
+        tokenGenerations.put(userId, generation);
+        return generation;
+    }
+
+    // Tagged with the shard it is stored on (see ShardRouter); untagged with a single shard
+    private String generateToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        Integer shard = ShardContext.current();
+        return shardRouter.tagRefreshToken(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes),
+                shard != null ? shard : 0);
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
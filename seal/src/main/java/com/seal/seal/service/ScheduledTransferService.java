@@ -0,0 +1,262 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.ScheduleFrequency;
+import com.seal.seal.entity.ScheduledTransfer;
+import com.seal.seal.entity.ScheduledTransferStatus;
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.InvalidRequestException;
+import com.seal.seal.exception.ResourceNotFoundException;
+import com.seal.seal.exception.SealException;
+import com.seal.seal.exception.TransferConflictException;
+import com.seal.seal.repository.ScheduledTransferRepository;
+import com.seal.seal.util.ShardKey;
+import com.seal.seal.util.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs standing orders. Every node polls; a poll claims a batch of due rows with
+// SELECT ... FOR UPDATE SKIP LOCKED and stamps them with a lease in one short
+// transaction, then executes each row in its own transaction. A node that dies
+// mid-batch only delays its rows until the lease expires. Each run commits the transfer
+// and the schedule update together, and the schedule's version (bumped by every claim)
+// stops a run whose lease was taken over from committing a second time.
+@Service
+public class ScheduledTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTransferService.class);
+
+    private enum Outcome { SUCCESS, FAILED, CONFLICT, SKIPPED, ERROR }
+
+    @Value("${seal.scheduled-transfers.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.scheduled-transfers.batch-size:100}")
+    private int batchSize;
+
+    @Value("${seal.scheduled-transfers.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${seal.scheduled-transfers.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${seal.scheduled-transfers.node-id:}")
+    private String nodeId;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final Counter[] outcomeCounters = new Counter[Outcome.values().length];
+    private Timer batchTimer;
+    private volatile boolean stopping;
+
+    @PostConstruct
+    void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            // pid@host
+            nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        if (nodeId.length() > 40) {
+            nodeId = nodeId.substring(0, 40);
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters[outcome.ordinal()] = Counter.builder("seal.scheduled-transfers.runs")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        batchTimer = Timer.builder("seal.scheduled-transfers.batch")
+                .description("Time to claim and execute one batch of due scheduled transfers")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${seal.scheduled-transfers.poll-ms:5000}",
+               initialDelayString = "${seal.scheduled-transfers.poll-ms:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        shardRouter.forEachShard(this::processDue);
+    }
+
+    // Shutdown lets the running batch finish but claims no new one, so the scheduler's
+    // await-termination window covers at most one batch
+    @EventListener(ContextClosedEvent.class)
+    void stopClaiming() {
+        stopping = true;
+    }
+
+    // Claims and runs batches until a short batch shows nothing more is due or maxBatches
+    // caps this poll. Returns the number of rows executed, successful or not.
+    public int processDue() {
+        long start = System.nanoTime();
+        int executed = 0;
+        int batches = 0;
+        List<Long> claimed;
+        do {
+            String owner = nodeId + "/" + claimSequence.incrementAndGet();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            claimed = claim(owner);
+            for (Long id : claimed) {
+                Outcome outcome = run(id, owner);
+                outcomeCounters[outcome.ordinal()].increment();
+                if (outcome == Outcome.SUCCESS || outcome == Outcome.FAILED) {
+                    executed++;
+                }
+            }
+            sample.stop(batchTimer);
+            batches++;
+        } while (claimed.size() == batchSize && batches < maxBatches && !stopping);
+
+        if (executed > 0) {
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            logger.info("Executed {} scheduled transfers in {} batches ({} ms, {}/s)",
+                    executed, batches, millis, executed * 1000L / millis);
+        }
+        return executed;
+    }
+
+    private List<Long> claim(String owner) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = scheduledTransferRepository.findDueForUpdate(now, PageRequest.of(0, batchSize))
+                    .stream().map(ScheduledTransfer::getId).toList();
+            if (!ids.isEmpty()) {
+                scheduledTransferRepository.lease(ids, owner, now.plusSeconds(leaseSeconds), now);
+            }
+            return ids;
+        });
+    }
+
+    private Outcome run(Long id, String owner) {
+        try {
+            return transactionTemplate.execute(status -> {
+                ScheduledTransfer scheduled = scheduledTransferRepository.findWithWallets(id).orElse(null);
+                if (scheduled == null || scheduled.getStatus() != ScheduledTransferStatus.ACTIVE
+                        || !owner.equals(scheduled.getLeaseOwner())) {
+                    // Cancelled, or the lease went to another node since the claim
+                    return Outcome.SKIPPED;
+                }
+                // Joins this transaction, so the transfer and the schedule update commit together
+                Transaction transaction = transactionService.transferMoney(
+                        scheduled.getFromWallet().getUser().getPhone(),
+                        scheduled.getToWallet().getUser().getPhone(),
+                        scheduled.getAmount());
+                scheduled.recordRun(LocalDateTime.now(), TransactionStatus.SUCCESS, null, transaction.getId());
+                scheduledTransferRepository.saveAndFlush(scheduled);
+                return Outcome.SUCCESS;
+            });
+        } catch (SealException e) {
+            // Business rejection (insufficient balance, inactive wallet): the transfer rolled
+            // back, the failure is recorded on the schedule
+            return recordFailure(id, owner, e);
+        } catch (ConcurrencyFailureException e) {
+            // Lost a race on a wallet or the schedule; the next poll picks the row up again
+            scheduledTransferRepository.release(id, owner);
+            logger.debug("Scheduled transfer {} conflicted, released for the next poll", id);
+            return Outcome.CONFLICT;
+        } catch (RuntimeException e) {
+            scheduledTransferRepository.release(id, owner);
+            logger.error("Scheduled transfer {} failed unexpectedly: {}", id, e.getMessage(), e);
+            return Outcome.ERROR;
+        }
+    }
+
+    private Outcome recordFailure(Long id, String owner, SealException failure) {
+        try {
+            return transactionTemplate.execute(status -> {
+                ScheduledTransfer scheduled = scheduledTransferRepository.findById(id).orElse(null);
+                if (scheduled == null || !owner.equals(scheduled.getLeaseOwner())) {
+                    return Outcome.SKIPPED;
+                }
+                scheduled.recordRun(LocalDateTime.now(), TransactionStatus.FAILED, failure.getCode(), null);
+                scheduledTransferRepository.saveAndFlush(scheduled);
+                logger.info("Scheduled transfer {} rejected: {}", id, failure.getCode());
+                return Outcome.FAILED;
+            });
+        } catch (ConcurrencyFailureException e) {
+            scheduledTransferRepository.release(id, owner);
+            return Outcome.CONFLICT;
+        }
+    }
+
+    public ScheduledTransfer create(@ShardKey String fromPhone, String toPhone, long amount, ScheduleFrequency frequency,
+                                    LocalDateTime firstRunAt) {
+        if (fromPhone.equals(toPhone)) {
+            throw InvalidRequestException.SELF_TRANSFER;
+        }
+        if (amount <= 0) {
+            throw new InvalidRequestException("Amount must be greater than 0");
+        }
+        // A schedule references both wallets, so both must be on the sender's shard
+        if (shardRouter.shardOfPhone(fromPhone) != shardRouter.shardOfPhone(toPhone)) {
+            throw new InvalidRequestException("Scheduled transfers to users on another shard are not supported");
+        }
+        Wallet fromWallet = walletService.findByUserPhone(fromPhone);
+        Wallet toWallet = walletService.findByUserPhone(toPhone);
+        LocalDateTime nextRunAt = firstRunAt != null ? firstRunAt : LocalDateTime.now();
+        ScheduledTransfer scheduled = new ScheduledTransfer(fromWallet, toWallet, amount,
+                frequency != null ? frequency : ScheduleFrequency.ONCE, nextRunAt);
+        ScheduledTransfer saved = scheduledTransferRepository.save(scheduled);
+        logger.info("Scheduled transfer created: id={}, from={}, to={}, amount={}, frequency={}, nextRunAt={}",
+                saved.getId(), fromPhone, toPhone, amount, saved.getFrequency(), nextRunAt);
+        return saved;
+    }
+
+    public List<ScheduledTransfer> getUserScheduledTransfers(@ShardKey(ShardKey.Type.ID) Long userId) {
+        return scheduledTransferRepository.findByFromUserId(userId);
+    }
+
+    // A run holding the row commits first or fails on the version bump, never both
+    public ScheduledTransfer cancel(@ShardKey String phone, Long id) {
+        try {
+            return transactionTemplate.execute(status -> {
+                ScheduledTransfer scheduled = scheduledTransferRepository.findWithWallets(id)
+                        .filter(st -> st.getFromWallet().getUser().getPhone().equals(phone))
+                        .orElseThrow(() -> new ResourceNotFoundException("Scheduled transfer not found"));
+                if (scheduled.getStatus() != ScheduledTransferStatus.ACTIVE) {
+                    throw new InvalidRequestException("Scheduled transfer is not active");
+                }
+                scheduled.setStatus(ScheduledTransferStatus.CANCELLED);
+                scheduled.setLeaseOwner(null);
+                scheduled.setLeaseUntil(null);
+                return scheduledTransferRepository.saveAndFlush(scheduled);
+            });
+        } catch (ConcurrencyFailureException e) {
+            throw TransferConflictException.INSTANCE;
+        }
+    }
+}
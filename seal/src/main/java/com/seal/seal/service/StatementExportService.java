@@ -0,0 +1,182 @@
+package com.seal.seal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.util.ShardKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Service
+public class StatementExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementExportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String CSV_HEADER = "id,from_phone,to_phone,amount,type,status,created_at\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Rows go straight from the JDBC cursor and the archive segments to the output stream,
+    // so memory use does not depend on the size of the statement
+    @Transactional(readOnly = true)
+    public long export(@ShardKey(ShardKey.Type.ID) Long userId, LocalDateTime from, LocalDateTime to, String format, OutputStream out)
+            throws IOException {
+        long rows;
+        Long walletId = walletRepository.findIdByUserId(userId).orElse(null);
+        try (Stream<TransactionResponse> statement = walletId == null ? Stream.empty()
+                : withArchived(transactionArchiveService.statement(walletId, from, to),
+                        transactionRepository.streamStatement(walletId, from, to))) {
+            if (FORMAT_NDJSON.equals(format)) {
+                rows = writeNdjson(statement.iterator(), out);
+            } else {
+                rows = writeCsv(statement.iterator(), out);
+            }
+        }
+        logger.info("Exported {} transactions for user {} as {}", rows, userId, format);
+        return rows;
+    }
+
+    // Both in (createdAt, id) order. Archived rows are mostly older than the database ones,
+    // but pending holds and rows an OTP points at stay behind, so the two are merged. A row
+    // still in the database after being archived meets its archived copy in the merge and
+    // is exported once.
+    private static Stream<TransactionResponse> withArchived(Stream<TransactionResponse> archived,
+                                                           Stream<TransactionResponse> recent) {
+        Iterator<TransactionResponse> fromArchive = archived.iterator();
+        Iterator<TransactionResponse> fromDatabase = recent.iterator();
+        Iterator<TransactionResponse> merged = new Iterator<>() {
+            private TransactionResponse old;
+            private TransactionResponse pending;
+            private Long lastId;
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return old != null || pending != null;
+            }
+
+            @Override
+            public TransactionResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TransactionResponse row;
+                if (pending == null || old != null && !isAfter(old, pending)) {
+                    row = old;
+                    old = null;
+                } else {
+                    row = pending;
+                    pending = null;
+                }
+                lastId = row.getId();
+                return row;
+            }
+
+            private void fill() {
+                while (true) {
+                    if (old == null && fromArchive.hasNext()) {
+                        old = fromArchive.next();
+                    }
+                    if (pending == null && fromDatabase.hasNext()) {
+                        pending = fromDatabase.next();
+                    }
+                    if (old != null && old.getId().equals(lastId)) {
+                        old = null;
+                    } else if (pending != null && pending.getId().equals(lastId)) {
+                        pending = null;
+                    } else {
+                        return;
+                    }
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(archived::close)
+                .onClose(recent::close);
+    }
+
+    private static boolean isAfter(TransactionResponse a, TransactionResponse b) {
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime > 0 || byTime == 0 && a.getId() > b.getId();
+    }
+
+    private long writeCsv(Iterator<TransactionResponse> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        long count = 0;
+        while (rows.hasNext()) {
+            TransactionResponse t = rows.next();
+            writer.append(String.valueOf(t.getId())).append(',')
+                  .append(csv(t.getFromPhone())).append(',')
+                  .append(csv(t.getToPhone())).append(',')
+                  .append(t.getAmount().toPlainString()).append(',')
+                  .append(csv(t.getType())).append(',')
+                  .append(t.getStatus().name()).append(',')
+                  .append(String.valueOf(t.getCreatedAt())).append('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<TransactionResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writerFor(TransactionResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                count++;
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
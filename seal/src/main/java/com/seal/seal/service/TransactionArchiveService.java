@@ -0,0 +1,273 @@
+package com.seal.seal.service;
+
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.TransactionType;
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.repository.WalletActivityRepository;
+import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.util.ArchivedTransaction;
+import com.seal.seal.util.ShardContext;
+import com.seal.seal.util.ShardKey;
+import com.seal.seal.util.ShardRouter;
+import com.seal.seal.util.TransactionArchive;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Moves settled transactions older than age-days out of the database into cold storage
+// (TransactionArchive, one per shard) and reads them back for history and statements.
+// A run writes its segment first and deletes the rows only once it is on disk, so a run
+// that dies half-way leaves rows in both places, never in neither. Every node that
+// serves history must see the same directory (a shared volume when there are several).
+@Service
+public class TransactionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    private static final TransactionType.JpaConverter TYPES = new TransactionType.JpaConverter();
+    private static final TransactionStatus.JpaConverter STATUSES = new TransactionStatus.JpaConverter();
+    // Stands in for an archive whose directory cannot be read
+    private static final TransactionArchive EMPTY = new TransactionArchive(Path.of(""), 0);
+
+    @Value("${seal.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${seal.archive.dir:archive}")
+    private String directory;
+
+    @Value("${seal.archive.age-days:365}")
+    private int ageDays;
+
+    @Value("${seal.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${seal.archive.max-rows:200000}")
+    private int maxRows;
+
+    @Value("${seal.archive.block-bytes:65536}")
+    private int blockBytes;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletActivityRepository walletActivityRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Integer, TransactionArchive> archives = new ConcurrentHashMap<>();
+
+    private Counter archivedCounter;
+    private Timer archiveTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        archivedCounter = Counter.builder("seal.archive.rows").register(meterRegistry);
+        archiveTimer = Timer.builder("seal.archive.duration").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${seal.archive.interval-ms:86400000}",
+               initialDelayString = "${seal.archive.interval-ms:86400000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+        shardRouter.forEachShard(() -> archiveOlderThan(cutoff));
+    }
+
+    // Picks up segments other nodes wrote
+    @Scheduled(fixedDelayString = "${seal.archive.refresh-ms:60000}",
+               initialDelayString = "${seal.archive.refresh-ms:60000}")
+    public void refresh() {
+        shardRouter.forEachShard(() -> {
+            try {
+                openArchive(false);
+            } catch (IOException e) {
+                logger.warn("Could not refresh the transaction archive: {}", e.getMessage());
+            }
+        });
+    }
+
+    // Archives up to max-rows rows of the current shard as one segment; returns how many
+    public long archiveOlderThan(LocalDateTime cutoff) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        long afterId = 0;
+        List<Transaction> batch;
+        do {
+            batch = transactionRepository.findArchivable(afterId, cutoff, PageRequest.of(0, batchSize));
+            for (Transaction transaction : batch) {
+                rows.add(toArchived(transaction));
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize && rows.size() < maxRows);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            openArchive(false).append(rows);
+        } catch (IOException e) {
+            // Nothing deleted; the next run tries again
+            logger.error("Could not write the transaction archive, {} rows stay in the database: {}",
+                    rows.size(), e.getMessage());
+            return 0;
+        }
+        List<Long> ids = rows.stream().map(ArchivedTransaction::id).toList();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                walletActivityRepository.deleteByTransactionIds(chunk);
+                transactionRepository.deleteArchived(chunk);
+            });
+        }
+
+        long nanos = sample.stop(archiveTimer);
+        archivedCounter.increment(rows.size());
+        logger.info("Archived {} transactions created before {} ({} ms)", rows.size(), cutoff, nanos / 1_000_000);
+        return rows.size();
+    }
+
+    // Archived transactions of the wallet, newest first, as detached entities whose wallets
+    // carry only ids and owner phones. Free when the shard has no archive.
+    public List<Transaction> findByWalletId(@ShardKey(ShardKey.Type.ID) Long walletId) {
+        List<ArchivedTransaction> rows = find(walletId);
+        List<Transaction> transactions = new ArrayList<>(rows.size());
+        for (ArchivedTransaction row : rows) {
+            transactions.add(toEntity(row));
+        }
+        return transactions;
+    }
+
+    // Statement rows of the wallet within [from, to), oldest first, read from the segments
+    // as the stream is consumed
+    public Stream<TransactionResponse> statement(@ShardKey(ShardKey.Type.ID) Long walletId,
+                                                 LocalDateTime from, LocalDateTime to) {
+        TransactionArchive archive = currentArchive();
+        if (archive.isEmpty()) {
+            return Stream.empty();
+        }
+        Iterator<ArchivedTransaction> rows = archive.findOldestFirst(walletId);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                .dropWhile(row -> row.createdAt().isBefore(from))
+                .takeWhile(row -> row.createdAt().isBefore(to))
+                .map(row -> new TransactionResponse(row.id(),
+                        row.fromPhone() != null ? row.fromPhone() : row.counterpartyPhone(),
+                        row.toPhone() != null ? row.toPhone() : row.counterpartyPhone(),
+                        row.amount(), walletId.equals(row.fromWalletId()) ? "SENT" : "RECEIVED",
+                        STATUSES.convertToEntityAttribute(row.status()), row.createdAt()));
+    }
+
+    // Whether the current shard's archive holds rows created at or after `time`; history
+    // that already has its rows from the database before that point skips the archive
+    public boolean hasRowsSince(LocalDateTime time) {
+        return currentArchive().hasRowsSince(time);
+    }
+
+    private List<ArchivedTransaction> find(Long walletId) {
+        TransactionArchive archive = currentArchive();
+        return archive.isEmpty() ? List.of() : archive.find(walletId);
+    }
+
+    // An unreadable archive directory degrades history to the database rows
+    private TransactionArchive currentArchive() {
+        try {
+            return openArchive(true);
+        } catch (IOException e) {
+            logger.warn("Transaction archive unavailable, serving recent history only: {}", e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    // The current shard's archive, scanning its directory on first use or when asked to
+    private TransactionArchive openArchive(boolean cached) throws IOException {
+        int shard = ShardContext.current() != null ? ShardContext.current() : 0;
+        TransactionArchive archive = archives.get(shard);
+        if (archive != null && cached) {
+            return archive;
+        }
+        if (archive == null) {
+            Path root = Path.of(directory);
+            archive = archives.computeIfAbsent(shard, s -> new TransactionArchive(
+                    shardRouter.isSharded() ? root.resolve("shard-" + s) : root, blockBytes));
+        }
+        int opened = archive.refresh();
+        if (opened > 0) {
+            logger.info("Opened {} archive segments for shard {}", opened, shard);
+        }
+        return archive;
+    }
+
+    private static ArchivedTransaction toArchived(Transaction t) {
+        Wallet from = t.getFromWallet();
+        Wallet to = t.getToWallet();
+        return new ArchivedTransaction(t.getId(),
+                from != null ? from.getId() : null, from != null ? from.getUser().getId() : null,
+                from != null ? from.getUser().getPhone() : null,
+                to != null ? to.getId() : null, to != null ? to.getUser().getId() : null,
+                to != null ? to.getUser().getPhone() : null,
+                t.getAmount(), t.getType().getCode(), t.getStatus().getCode(), t.getCreatedAt(),
+                t.getCounterpartyPhone(), t.getSagaId());
+    }
+
+    private static Transaction toEntity(ArchivedTransaction row) {
+        Transaction transaction = new Transaction(wallet(row.fromWalletId(), row.fromUserId(), row.fromPhone()),
+                wallet(row.toWalletId(), row.toUserId(), row.toPhone()), row.amount(),
+                TYPES.convertToEntityAttribute(row.type()));
+        transaction.setId(row.id());
+        transaction.setStatus(STATUSES.convertToEntityAttribute(row.status()));
+        transaction.setCreatedAt(row.createdAt());
+        transaction.setCounterpartyPhone(row.counterpartyPhone());
+        transaction.setSagaId(row.sagaId());
+        return transaction;
+    }
+
+    private static Wallet wallet(Long walletId, Long userId, String phone) {
+        if (walletId == null) {
+            return null;
+        }
+        User user = new User(phone, null);
+        user.setId(userId);
+        Wallet wallet = new Wallet(user);
+        wallet.setId(walletId);
+        return wallet;
+    }
+}
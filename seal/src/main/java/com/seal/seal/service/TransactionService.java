@@ -1,62 +1,410 @@
 package com.seal.seal.service;
 
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.dto.WalletResponse;
 import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.TransactionType;
 import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.HoldNotPendingException;
+import com.seal.seal.exception.InactiveWalletException;
+import com.seal.seal.exception.InsufficientBalanceException;
+import com.seal.seal.exception.InvalidRequestException;
+import com.seal.seal.exception.ResourceNotFoundException;
+import com.seal.seal.exception.TransferConflictException;
 import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.repository.WalletActivityRepository;
 import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.util.Money;
+import com.seal.seal.util.ShardContext;
+import com.seal.seal.util.ShardKey;
+import com.seal.seal.util.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 public class TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
+    // Ids per IN list when loading history rows
+    private static final int HISTORY_FETCH_SIZE = 500;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
     @Autowired
     private WalletRepository walletRepository;
 
+    @Autowired
+    private WalletActivityRepository walletActivityRepository;
+
     @Autowired
     private WalletService walletService;
 
-    @Transactional
-    public Transaction transferMoney(String fromPhone, String toPhone, BigDecimal amount) {
-        logger.info("Starting money transfer: from={}, to={}, amount={}", fromPhone, toPhone, amount);
-        
-        // Find wallets
-        Wallet fromWallet = walletService.findByUserPhone(fromPhone);
-        Wallet toWallet = walletService.findByUserPhone(toPhone);
+    @Autowired
+    private WalletSummaryService walletSummaryService;
 
-        logger.debug("Wallets found - From: {}, To: {}", fromWallet.getId(), toWallet.getId());
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-        // Validate wallets
-        if (!walletService.isWalletActive(fromWallet)) {
-            logger.error("Sender wallet is not active: {}", fromPhone);
-            throw new RuntimeException("Sender wallet is not active");
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private List<TransferRule> transferRules;
+
+    @Value("${seal.transfer.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${seal.transfer.retry.backoff-ms:10}")
+    private long retryBackoffMs;
+
+    @Value("${seal.transfer.hold.expiration-seconds:900}")
+    private long holdExpirationSeconds;
+
+    // How long the sender's leg of a cross-shard transfer may stay pending before the hold
+    // sweeper finishes or compensates it. Well above any credit step, which is one short
+    // transaction on the receiver's shard.
+    @Value("${seal.sharding.saga-timeout-seconds:300}")
+    private long sagaTimeoutSeconds;
+
+    private Counter conflictCounter;
+    private Counter retryCounter;
+    private Counter retryExhaustedCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        conflictCounter = Counter.builder("seal.transfer.conflicts")
+                .description("Transfers that hit an optimistic lock conflict")
+                .register(meterRegistry);
+        retryCounter = Counter.builder("seal.transfer.retries").register(meterRegistry);
+        retryExhaustedCounter = Counter.builder("seal.transfer.retries.exhausted").register(meterRegistry);
+    }
+
+    // Amount is in minor units (see Money). Wallets are optimistically locked, so a
+    // concurrent update to either wallet fails the flush instead of being overwritten. The
+    // whole transfer then reruns in a fresh transaction, up to max-attempts times with
+    // jittered exponential backoff. Lock timeouts and deadlock victims are just as safe to
+    // rerun. When called inside an outer transaction there is nothing to rerun, so
+    // conflicts propagate.
+    public Transaction transferMoney(@ShardKey String fromPhone, String toPhone, long amount) {
+        int toShard = shardRouter.shardOfPhone(toPhone);
+        if (shardRouter.shardOfPhone(fromPhone) != toShard) {
+            return crossShardTransfer(fromPhone, toPhone, toShard, amount);
+        }
+        return withRetry("Transfer", fromPhone, toPhone, () -> doTransfer(fromPhone, toPhone, amount));
+    }
+
+    // Sharded mode, sender and receiver on different databases: a saga over the hold
+    // machinery, each step its own transaction on one shard.
+    //   1. Sender's shard: the amount moves to held_balance under a PENDING leg with no
+    //      to_wallet, expiring after saga-timeout-seconds.
+    //   2. Receiver's shard: the receiver is credited and a RECEIVE leg records the sender
+    //      leg's id (unique, so a credit never applies twice).
+    //   3. Sender's shard: the held amount is released and the leg becomes SUCCESS.
+    // If step 2 fails the hold is voided (compensation) and the failure is rethrown. If the
+    // node dies between steps, HoldExpiryService picks the leg up once it expires and
+    // finishes it (step 3) or compensates it, depending on whether the credit leg exists.
+    private Transaction crossShardTransfer(String fromPhone, String toPhone, int toShard, long amount) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // An outer transaction holds a connection to one shard and cannot span two
+            throw new IllegalStateException("Cross-shard transfers cannot join an outer transaction");
+        }
+        Transaction debit = withRetry("Saga debit", fromPhone, toPhone, () -> {
+            Wallet fromWallet = walletService.findByUserPhone(fromPhone);
+            validate(fromWallet, null, amount);
+            return hold(fromWallet, null, toPhone, amount, sagaTimeoutSeconds);
+        });
+
+        Wallet toWallet;
+        try {
+            toWallet = ShardContext.call(toShard, () -> withRetry("Saga credit", fromPhone, toPhone,
+                    () -> credit(debit, fromPhone, toPhone)).getToWallet());
+        } catch (RuntimeException e) {
+            try {
+                // A credit whose commit outcome was lost may still have applied
+                if (credited(debit)) {
+                    withRetry("Saga settle", fromPhone, toPhone, () -> settle(debit.getId(), null));
+                    return transactionRepository.findById(debit.getId()).orElseThrow();
+                }
+                withRetry("Saga compensation", fromPhone, toPhone, () -> compensate(debit.getId()));
+            } catch (RuntimeException recoveryFailure) {
+                // Left pending; the hold sweeper finishes it once the leg expires
+                logger.error("Saga recovery failed for transactionId={}: {}", debit.getId(),
+                        recoveryFailure.getMessage());
+            }
+            throw e;
         }
+
+        Transaction settled = withRetry("Saga settle", fromPhone, toPhone, () -> settle(debit.getId(), toWallet));
+        logger.info("Cross-shard transfer completed: transactionId={}, from={}, to={}, amount={}",
+                debit.getId(), fromPhone, toPhone, amount);
+        return settled != null ? settled : transactionRepository.findById(debit.getId()).orElseThrow();
+    }
+
+    // Saga step 2, on the receiver's shard
+    private Transaction credit(Transaction debit, String fromPhone, String toPhone) {
+        Wallet toWallet = walletService.findByUserPhone(toPhone);
         if (!walletService.isWalletActive(toWallet)) {
-            logger.error("Receiver wallet is not active: {}", toPhone);
-            throw new RuntimeException("Receiver wallet is not active");
+            throw InactiveWalletException.RECEIVER;
         }
+        toWallet.setBalance(Math.addExact(toWallet.getBalance(), debit.getAmount()));
+        toWallet.setUpdatedAt(LocalDateTime.now());
+        walletRepository.save(toWallet);
+        walletRepository.flush();
 
-        // Check sufficient balance
-        if (!walletService.hasSufficientBalance(fromWallet, amount)) {
-            logger.error("Insufficient balance for user {}: required={}, available={}", 
-                        fromPhone, amount, fromWallet.getBalance());
-            throw new RuntimeException("Insufficient balance");
+        Transaction credit = new Transaction(null, toWallet, debit.getAmount(), TransactionType.RECEIVE);
+        credit.setCounterpartyPhone(fromPhone);
+        credit.setSagaId(debit.getId());
+        credit.setStatus(TransactionStatus.SUCCESS);
+        credit.setCreatedAt(LocalDateTime.now());
+        Transaction saved = recordActivity(transactionRepository.save(credit));
+        walletSummaryService.recordTransfer(null, toWallet.getId(), Money.toDecimal(debit.getAmount()),
+                saved.getCreatedAt().toLocalDate());
+        return saved;
+    }
+
+    // Saga step 3, on the sender's shard. Null if the leg was settled or compensated
+    // already (by the sweeper). toWallet is null when the sweeper settles, which then
+    // publishes no notification.
+    private Transaction settle(Long debitId, Wallet toWallet) {
+        Transaction debit = settlePending(debitId, Transaction::isSagaDebit, TransactionStatus.SUCCESS);
+        if (debit == null) {
+            return null;
+        }
+        Wallet fromWallet = debit.getFromWallet();
+        fromWallet.setHeldBalance(fromWallet.getHeldBalance() - debit.getAmount());
+        fromWallet.setUpdatedAt(LocalDateTime.now());
+        walletRepository.save(fromWallet);
+        walletRepository.flush();
+        walletSummaryService.recordTransfer(fromWallet.getId(), null, Money.toDecimal(debit.getAmount()),
+                debit.getCreatedAt().toLocalDate());
+        if (toWallet != null) {
+            publishCompleted(debit, fromWallet, toWallet);
+        }
+        return debit;
+    }
+
+    private Transaction compensate(Long debitId) {
+        Transaction debit = settlePending(debitId, Transaction::isSagaDebit, TransactionStatus.VOIDED);
+        if (debit == null) {
+            return null;
+        }
+        releaseHold(debit);
+        logger.info("Saga compensated: transactionId={}", debitId);
+        return debit;
+    }
+
+    // Whether step 2 committed, asked of the receiver's shard
+    private boolean credited(Transaction debit) {
+        return ShardContext.call(shardRouter.shardOfPhone(debit.getCounterpartyPhone()),
+                () -> transactionRepository.existsBySagaId(debit.getId()));
+    }
+
+    // Two-phase transfer, step one: moves the amount from the sender's balance into their
+    // held balance and records a PENDING transaction. The receiver is untouched until
+    // capture. Each phase is its own short transaction, so nothing stays open while the
+    // user confirms.
+    public Transaction authorizeHold(@ShardKey String fromPhone, String toPhone, long amount) {
+        if (shardRouter.shardOfPhone(fromPhone) != shardRouter.shardOfPhone(toPhone)) {
+            // The hold references the receiver's wallet, which must be on the sender's shard
+            throw new InvalidRequestException("Holds to users on another shard are not supported");
+        }
+        return withRetry("Hold", fromPhone, toPhone, () -> doAuthorizeHold(fromPhone, toPhone, amount));
+    }
+
+    // Pays a pending hold out to the receiver. Fails once the hold has expired, even if
+    // the sweeper has not released it yet.
+    public Transaction captureHold(@ShardKey String fromPhone, Long transactionId) {
+        return withRetry("Capture", fromPhone, String.valueOf(transactionId), () -> {
+            Long walletId = walletId(fromPhone);
+            LocalDateTime now = LocalDateTime.now();
+            Transaction transaction = settlePending(transactionId,
+                    hold -> isHoldOf(hold, walletId) && hold.getHoldExpiresAt().isAfter(now), TransactionStatus.SUCCESS);
+            if (transaction == null) {
+                throw HoldNotPendingException.INSTANCE;
+            }
+            Wallet fromWallet = transaction.getFromWallet();
+            Wallet toWallet = transaction.getToWallet();
+            if (!walletService.isWalletActive(toWallet)) {
+                throw InactiveWalletException.RECEIVER;
+            }
+            fromWallet.setHeldBalance(fromWallet.getHeldBalance() - transaction.getAmount());
+            fromWallet.setUpdatedAt(LocalDateTime.now());
+            toWallet.setBalance(Math.addExact(toWallet.getBalance(), transaction.getAmount()));
+            toWallet.setUpdatedAt(LocalDateTime.now());
+            walletRepository.save(fromWallet);
+            walletRepository.save(toWallet);
+            walletRepository.flush();
+
+            walletSummaryService.recordTransfer(fromWallet.getId(), toWallet.getId(),
+                    Money.toDecimal(transaction.getAmount()), LocalDateTime.now().toLocalDate());
+            publishCompleted(transaction, fromWallet, toWallet);
+            logger.info("Hold captured: transactionId={}, amount={}", transactionId, transaction.getAmount());
+            return transaction;
+        });
+    }
+
+    public Transaction voidHold(@ShardKey String fromPhone, Long transactionId) {
+        return withRetry("Void", fromPhone, String.valueOf(transactionId), () -> {
+            Long walletId = walletId(fromPhone);
+            Transaction transaction = settlePending(transactionId, hold -> isHoldOf(hold, walletId),
+                    TransactionStatus.VOIDED);
+            if (transaction == null) {
+                throw HoldNotPendingException.INSTANCE;
+            }
+            releaseHold(transaction);
+            logger.info("Hold voided: transactionId={}", transactionId);
+            return transaction;
+        });
+    }
+
+    // Used by the expiry sweeper; false when the hold was settled in the meantime. An
+    // expired saga leg is finished if its credit committed and compensated otherwise.
+    public boolean expireHold(@ShardKey(ShardKey.Type.ID) Long transactionId) {
+        Transaction pending = transactionRepository.findById(transactionId).orElse(null);
+        if (pending != null && pending.isSagaDebit()) {
+            String id = String.valueOf(transactionId);
+            Transaction finished = credited(pending)
+                    ? withRetry("Saga settle", "-", id, () -> settle(transactionId, null))
+                    : withRetry("Saga compensation", "-", id, () -> compensate(transactionId));
+            return finished != null;
+        }
+        Transaction expired = withRetry("Expiry", "-", String.valueOf(transactionId), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            Transaction transaction = settlePending(transactionId,
+                    hold -> !hold.getHoldExpiresAt().isAfter(now), TransactionStatus.VOIDED);
+            if (transaction == null) {
+                return null;
+            }
+            releaseHold(transaction);
+            return transaction;
+        });
+        return expired != null;
+    }
+
+    // Hold settlement locks the hold's row, so a capture, a void and the expiry sweep racing
+    // on one hold are serialized and exactly one of them still finds it PENDING. The status
+    // changes through the entity, which updates its cached entry in place; a bulk UPDATE
+    // would evict the whole transactions region. Null if the hold was settled already or
+    // the condition does not hold.
+    private Transaction settlePending(Long id, Predicate<Transaction> condition, TransactionStatus status) {
+        Transaction hold = transactionRepository.findByIdForUpdate(id)
+                .filter(t -> t.getStatus() == TransactionStatus.PENDING && condition.test(t))
+                .orElse(null);
+        if (hold != null) {
+            hold.setStatus(status);
+        }
+        return hold;
+    }
+
+    // A same-shard hold, settled by its sender. The sender's leg of a cross-shard transfer
+    // is a hold too, but only the saga settles it.
+    private static boolean isHoldOf(Transaction hold, Long walletId) {
+        return hold.getToWallet() != null && hold.getFromWallet().getId().equals(walletId);
+    }
+
+    private Long walletId(String phone) {
+        return walletRepository.findVersionByUserPhone(phone)
+                .orElseThrow(() -> new ResourceNotFoundException("Wallet not found for phone: " + phone))
+                .getId();
+    }
+
+    private void releaseHold(Transaction transaction) {
+        Wallet fromWallet = transaction.getFromWallet();
+        fromWallet.setHeldBalance(fromWallet.getHeldBalance() - transaction.getAmount());
+        fromWallet.setBalance(Math.addExact(fromWallet.getBalance(), transaction.getAmount()));
+        fromWallet.setUpdatedAt(LocalDateTime.now());
+        walletRepository.save(fromWallet);
+        if (transaction.getToWallet() != null) {
+            // The receiver's history shows the hold, which is no longer pending
+            touch(transaction.getToWallet());
+        }
+        walletRepository.flush();
+    }
+
+    // History shares the wallet's ETag, so a wallet whose history changes without its
+    // balance moving is still saved, which bumps its version
+    private void touch(Wallet wallet) {
+        wallet.setUpdatedAt(LocalDateTime.now());
+        walletRepository.save(wallet);
+    }
+
+    private Transaction withRetry(String action, String from, String to, Supplier<Transaction> work) {
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                conflictCounter.increment();
+                if (joined) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    retryExhaustedCounter.increment();
+                    logger.warn("{} gave up after {} conflicting attempts: from={}, to={}", action, attempt, from, to);
+                    throw TransferConflictException.INSTANCE;
+                }
+                retryCounter.increment();
+                logger.debug("{} conflict on attempt {}, retrying: from={}, to={}", action, attempt, from, to);
+                backoff(attempt);
+            }
         }
+    }
+
+    private void backoff(int attempt) {
+        long ceilingMs = retryBackoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceilingMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Transfer interrupted");
+        }
+    }
+
+    private Transaction doTransfer(String fromPhone, String toPhone, long amount) {
+        logger.info("Starting money transfer: from={}, to={}, amount={}", fromPhone, toPhone, amount);
+        
+        // Find wallets
+        Wallet fromWallet = walletService.findByUserPhone(fromPhone);
+        Wallet toWallet = walletService.findByUserPhone(toPhone);
+
+        logger.debug("Wallets found - From: {}, To: {}", fromWallet.getId(), toWallet.getId());
+        validate(fromWallet, toWallet, amount);
 
         // Perform transfer
-        BigDecimal newFromBalance = fromWallet.getBalance().subtract(amount);
-        BigDecimal newToBalance = toWallet.getBalance().add(amount);
+        long newFromBalance = fromWallet.getBalance() - amount;
+        long newToBalance = Math.addExact(toWallet.getBalance(), amount);
 
         fromWallet.setBalance(newFromBalance);
         fromWallet.setUpdatedAt(LocalDateTime.now());
@@ -66,17 +414,22 @@ public class TransactionService {
 
         walletRepository.save(fromWallet);
         walletRepository.save(toWallet);
+        // Take the wallet row locks before touching the daily summaries
+        walletRepository.flush();
 
         // Create transaction record
         Transaction transaction = new Transaction();
         transaction.setFromWallet(fromWallet);
         transaction.setToWallet(toWallet);
         transaction.setAmount(amount);
-        transaction.setType("SEND");
-        transaction.setStatus("SUCCESS");
+        transaction.setType(TransactionType.SEND);
+        transaction.setStatus(TransactionStatus.SUCCESS);
         transaction.setCreatedAt(LocalDateTime.now());
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        Transaction savedTransaction = recordActivity(transactionRepository.save(transaction));
+        walletSummaryService.recordTransfer(fromWallet.getId(), toWallet.getId(), Money.toDecimal(amount),
+                savedTransaction.getCreatedAt().toLocalDate());
+        publishCompleted(savedTransaction, fromWallet, toWallet);
         
         logger.info("Money transfer completed successfully: transactionId={}, from={}, to={}, amount={}", 
                    savedTransaction.getId(), fromPhone, toPhone, amount);
@@ -84,18 +437,189 @@ public class TransactionService {
         return savedTransaction;
     }
 
-    public List<Transaction> getUserTransactions(Long userId) {
-        logger.debug("Fetching all transactions for user: {}", userId);
-        return transactionRepository.findByUserId(userId);
+    // Rejections are routine, so they throw shared stackless exceptions and log at debug;
+    // the controller logs one line per rejected transfer.
+    private void validate(Wallet fromWallet, Wallet toWallet, long amount) {
+        if (!walletService.isWalletActive(fromWallet)) {
+            logger.debug("Sender wallet is not active: {}", fromWallet.getId());
+            throw InactiveWalletException.SENDER;
+        }
+        // Null for a saga debit: the receiver is checked on its own shard in the credit step
+        if (toWallet != null && !walletService.isWalletActive(toWallet)) {
+            logger.debug("Receiver wallet is not active: {}", toWallet.getId());
+            throw InactiveWalletException.RECEIVER;
+        }
+
+        // Check sufficient balance
+        if (!walletService.hasSufficientBalance(fromWallet, amount)) {
+            logger.debug("Insufficient balance in wallet {}: required={}, available={}",
+                        fromWallet.getId(), amount, fromWallet.getBalance());
+            throw InsufficientBalanceException.INSTANCE;
+        }
+
+        for (TransferRule rule : transferRules) {
+            rule.check(fromWallet, toWallet, amount);
+        }
+    }
+
+    // Delivered to notification subscribers only once the transfer has committed
+    private void publishCompleted(Transaction transaction, Wallet fromWallet, Wallet toWallet) {
+        String fromPhone = fromWallet.getUser().getPhone();
+        String toPhone = toWallet.getUser().getPhone();
+        eventPublisher.publishEvent(new TransferCompletedEvent(
+                new TransactionResponse(transaction.getId(), fromPhone, toPhone, transaction.getAmount(),
+                        transaction.getType().name(), transaction.getStatus(), transaction.getCreatedAt()),
+                new WalletResponse(fromWallet.getId(), fromWallet.getBalance(), fromWallet.getStatus(), fromPhone),
+                fromWallet.getVersion(),
+                new WalletResponse(toWallet.getId(), toWallet.getBalance(), toWallet.getStatus(), toPhone),
+                toWallet.getVersion()));
+    }
+
+    private Transaction doAuthorizeHold(String fromPhone, String toPhone, long amount) {
+        Wallet fromWallet = walletService.findByUserPhone(fromPhone);
+        Wallet toWallet = walletService.findByUserPhone(toPhone);
+        validate(fromWallet, toWallet, amount);
+
+        Transaction saved = hold(fromWallet, toWallet, null, amount, holdExpirationSeconds);
+        logger.info("Hold authorized: transactionId={}, from={}, to={}, amount={}, expiresAt={}",
+                   saved.getId(), fromPhone, toPhone, amount, saved.getHoldExpiresAt());
+        return saved;
+    }
+
+    // Moves the amount into the sender's held balance under a PENDING transaction. The
+    // receiver is either a wallet on this shard or, for a saga leg, a phone on another.
+    private Transaction hold(Wallet fromWallet, Wallet toWallet, String counterpartyPhone, long amount,
+                             long expirySeconds) {
+        fromWallet.setBalance(fromWallet.getBalance() - amount);
+        fromWallet.setHeldBalance(Math.addExact(fromWallet.getHeldBalance(), amount));
+        fromWallet.setUpdatedAt(LocalDateTime.now());
+        walletRepository.save(fromWallet);
+        if (toWallet != null) {
+            // The pending hold shows up in the receiver's history too
+            touch(toWallet);
+        }
+        walletRepository.flush();
+
+        Transaction transaction = new Transaction(fromWallet, toWallet, amount, TransactionType.SEND);
+        transaction.setCounterpartyPhone(counterpartyPhone);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setHoldExpiresAt(transaction.getCreatedAt().plusSeconds(expirySeconds));
+        return recordActivity(transactionRepository.save(transaction));
     }
 
-    public List<Transaction> getSentTransactions(Long userId) {
-        logger.debug("Fetching sent transactions for user: {}", userId);
-        return transactionRepository.findByFromWalletUserIdOrderByCreatedAtDesc(userId);
+    // Every new transaction gets its wallet_activity rows in the same database transaction
+    private Transaction recordActivity(Transaction transaction) {
+        Long fromWalletId = transaction.getFromWallet() != null ? transaction.getFromWallet().getId() : null;
+        Long toWalletId = transaction.getToWallet() != null ? transaction.getToWallet().getId() : null;
+        if (fromWalletId != null && toWalletId != null && !fromWalletId.equals(toWalletId)) {
+            walletActivityRepository.insertTransfer(transaction.getId(), fromWalletId, toWalletId,
+                    transaction.getCreatedAt());
+        } else if (fromWalletId != null) {
+            walletActivityRepository.insert(transaction.getId(), fromWalletId, transaction.getCreatedAt(), true);
+        } else {
+            walletActivityRepository.insert(transaction.getId(), toWalletId, transaction.getCreatedAt(), false);
+        }
+        return transaction;
     }
 
-    public List<Transaction> getReceivedTransactions(Long userId) {
-        logger.debug("Fetching received transactions for user: {}", userId);
-        return transactionRepository.findByToWalletUserIdOrderByCreatedAtDesc(userId);
+    // History, newest first: all of it, or the last `limit` rows. The ids come from
+    // wallet_activity in index order and the rows by primary key. The archive
+    // (TransactionArchiveService) is only read when the database rows run out before
+    // `limit` or older rows are archived than the oldest one returned.
+    public List<Transaction> getUserTransactions(@ShardKey(ShardKey.Type.ID) Long userId) {
+        return history(userId, null, Integer.MAX_VALUE);
+    }
+
+    public List<Transaction> getUserTransactions(@ShardKey(ShardKey.Type.ID) Long userId, int limit) {
+        logger.debug("Fetching last {} transactions for user: {}", limit, userId);
+        return history(userId, null, limit);
+    }
+
+    public List<Transaction> getSentTransactions(@ShardKey(ShardKey.Type.ID) Long userId) {
+        return history(userId, true, Integer.MAX_VALUE);
+    }
+
+    public List<Transaction> getSentTransactions(@ShardKey(ShardKey.Type.ID) Long userId, int limit) {
+        logger.debug("Fetching last {} sent transactions for user: {}", limit, userId);
+        return history(userId, true, limit);
+    }
+
+    public List<Transaction> getReceivedTransactions(@ShardKey(ShardKey.Type.ID) Long userId) {
+        return history(userId, false, Integer.MAX_VALUE);
+    }
+
+    public List<Transaction> getReceivedTransactions(@ShardKey(ShardKey.Type.ID) Long userId, int limit) {
+        logger.debug("Fetching last {} received transactions for user: {}", limit, userId);
+        return history(userId, false, limit);
+    }
+
+    // sent: null for both directions
+    private List<Transaction> history(Long userId, Boolean sent, int limit) {
+        Long walletId = walletRepository.findIdByUserId(userId).orElse(null);
+        if (walletId == null) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = sent == null
+                ? walletActivityRepository.findRecentTransactionIds(walletId, limit)
+                : walletActivityRepository.findRecentTransactionIds(walletId, sent, limit);
+        List<Transaction> recent = findInOrder(ids);
+        if (recent.size() >= limit && !transactionArchiveService.hasRowsSince(recent.get(recent.size() - 1).getCreatedAt())) {
+            return recent;
+        }
+        List<Transaction> archived = transactionArchiveService.findByWalletId(walletId);
+        if (sent != null) {
+            archived.removeIf(t -> {
+                Wallet side = sent ? t.getFromWallet() : t.getToWallet();
+                return side == null || !walletId.equals(side.getId());
+            });
+        }
+        List<Transaction> merged = withArchived(recent, archived);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // In the order of `ids`, fetched with both wallets and their owners
+    private List<Transaction> findInOrder(List<Long> ids) {
+        Map<Long, Transaction> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += HISTORY_FETCH_SIZE) {
+            for (Transaction transaction : transactionRepository.findWithWalletsByIdIn(
+                    ids.subList(from, Math.min(from + HISTORY_FETCH_SIZE, ids.size())))) {
+                byId.put(transaction.getId(), transaction);
+            }
+        }
+        List<Transaction> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = byId.get(id);
+            if (transaction != null) {
+                ordered.add(transaction);
+            }
+        }
+        return ordered;
+    }
+
+    // Both lists newest first. Only rows older than the archive cutoff are archived, so the
+    // result is usually the two lists back to back; a merge keeps it ordered regardless.
+    // A row still in the database after being archived is returned once.
+    private static List<Transaction> withArchived(List<Transaction> recent, List<Transaction> archived) {
+        if (archived.isEmpty()) {
+            return recent;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Transaction transaction : recent) {
+            ids.add(transaction.getId());
+        }
+        List<Transaction> merged = new ArrayList<>(recent.size() + archived.size());
+        int r = 0;
+        for (Transaction old : archived) {
+            if (ids.contains(old.getId())) {
+                continue;
+            }
+            while (r < recent.size() && !recent.get(r).getCreatedAt().isBefore(old.getCreatedAt())) {
+                merged.add(recent.get(r++));
+            }
+            merged.add(old);
+        }
+        merged.addAll(recent.subList(r, recent.size()));
+        return merged;
     }
 }
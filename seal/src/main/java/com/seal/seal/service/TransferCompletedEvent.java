@@ -0,0 +1,30 @@
+package com.seal.seal.service;
+
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.dto.WalletResponse;
+
+// Published inside transferMoney and delivered after commit. Carries snapshots taken
+// while the wallets were still attached, so listeners never touch the database.
+public class TransferCompletedEvent {
+
+    private final TransactionResponse transaction;
+    private final WalletResponse fromWallet;
+    private final long fromVersion;
+    private final WalletResponse toWallet;
+    private final long toVersion;
+
+    public TransferCompletedEvent(TransactionResponse transaction, WalletResponse fromWallet, long fromVersion,
+                                  WalletResponse toWallet, long toVersion) {
+        this.transaction = transaction;
+        this.fromWallet = fromWallet;
+        this.fromVersion = fromVersion;
+        this.toWallet = toWallet;
+        this.toVersion = toVersion;
+    }
+
+    public TransactionResponse getTransaction() { return transaction; }
+    public WalletResponse getFromWallet() { return fromWallet; }
+    public long getFromVersion() { return fromVersion; }
+    public WalletResponse getToWallet() { return toWallet; }
+    public long getToVersion() { return toVersion; }
+}
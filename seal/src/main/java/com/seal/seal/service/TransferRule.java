@@ -0,0 +1,12 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Wallet;
+
+// A pre-transfer check. Rules run inside the transfer's transaction after the wallet and
+// balance checks, on every transfer and hold, so they must be cheap: no queries on the
+// hot path. Reject by throwing a SealException; the transfer then rolls back. toWallet is
+// null for the sender's step of a cross-shard transfer.
+public interface TransferRule {
+
+    void check(Wallet fromWallet, Wallet toWallet, long amount);
+}
@@ -1,18 +1,27 @@
 package com.seal.seal.service;
 
 import com.seal.seal.entity.User;
+import com.seal.seal.entity.UserRole;
+import com.seal.seal.entity.UserStatus;
 import com.seal.seal.entity.Wallet;
+import com.seal.seal.entity.WalletStatus;
+import com.seal.seal.exception.PhoneAlreadyRegisteredException;
 import com.seal.seal.repository.UserRepository;
 import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.util.ShardKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -26,40 +35,56 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // One INSERT ... ON CONFLICT CTE for user and wallet (PostgreSQL). When off, two
+    // inserts in one transaction with the unique violation mapped to the same error.
+    @Value("${seal.registration.single-statement:true}")
+    private boolean singleStatementRegistration;
+
     @Override
-    public UserDetails loadUserByUsername(String phone) throws UsernameNotFoundException {
+    public UserDetails loadUserByUsername(@ShardKey String phone) throws UsernameNotFoundException {
         User user = userRepository.findByPhone(phone)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with phone: " + phone));
         
+        // ROLE_ADMIN opens the management endpoints (SecurityConfig)
         return new org.springframework.security.core.userdetails.User(
-                user.getPhone(), user.getPassword(), new ArrayList<>());
+                user.getPhone(), user.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
     }
 
-    @Transactional
-    public User registerUser(String phone, String password) {
-        if (userRepository.existsByPhone(phone)) {
-            throw new RuntimeException("Phone number already registered");
-        }
-
-        User user = new User();
-        user.setPhone(phone);
-        user.setPassword(passwordEncoder.encode(password));
-        user.setRole("USER");
-        user.setStatus("ACTIVE");
-        user.setCreatedAt(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
-
-        User savedUser = userRepository.save(user);
+    // No exists-check: the unique index on phone decides, so concurrent sign-ups for one
+    // phone end with exactly one account. The password is hashed before any connection is
+    // taken. The returned user is detached; it carries the id, which is all callers need
+    // to issue tokens.
+    public User registerUser(@ShardKey String phone, String password) {
+        User user = new User(phone, passwordEncoder.encode(password));
+        user.setRole(UserRole.USER);
+        user.setStatus(UserStatus.ACTIVE);
+        LocalDateTime now = LocalDateTime.now();
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
 
-        // Create wallet for the user
-        Wallet wallet = new Wallet();
-        wallet.setUser(savedUser);
-        walletRepository.save(wallet);
+        if (singleStatementRegistration) {
+            Long userId = userRepository.insertWithWallet(phone, user.getPassword(), UserRole.USER.getCode(),
+                    UserStatus.ACTIVE.getCode(), WalletStatus.ACTIVE.getCode(), now)
+                    .orElseThrow(() -> PhoneAlreadyRegisteredException.INSTANCE);
+            user.setId(userId);
+            return user;
+        }
 
-        return savedUser;
+        try {
+            return transactionTemplate.execute(status -> {
+                User savedUser = userRepository.saveAndFlush(user);
+                walletRepository.save(new Wallet(savedUser));
+                return savedUser;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw PhoneAlreadyRegisteredException.INSTANCE;
+        }
     }
 
-    public User findByPhone(String phone) {
+    public User findByPhone(@ShardKey String phone) {
         return userRepository.findByPhone(phone)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
@@ -68,8 +93,19 @@ public class UserService implements UserDetailsService {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
 
+    // Through the entity so this node's cached user is replaced on commit and the next
+    // lookup, including wallet activity checks, sees the new status. Other nodes keep
+    // their copy until the users region TTL (see ehcache.xml).
+    @Transactional
+    public void updateStatus(@ShardKey String phone, UserStatus status) {
+        User user = findByPhone(phone);
+        user.setStatus(status);
+        user.setUpdatedAt(LocalDateTime.now());
+        userRepository.save(user);
+    }
+
     @Transactional
-    public void updateLastLogin(String phone) {
+    public void updateLastLogin(@ShardKey String phone) {
         User user = findByPhone(phone);
         user.setLastLogin(LocalDateTime.now());
         userRepository.save(user);
@@ -0,0 +1,179 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.VelocityLimitExceededException;
+import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.util.Money;
+import com.seal.seal.util.VelocityWindows;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Per-sender count and amount limits per minute, hour and day, checked against
+// in-memory sliding windows instead of SUM queries. A wallet's windows are seeded from
+// its last day of transactions on first use, so a restart or an eviction loses nothing.
+// Windows are per node: transfers another node accepts after the seed are not seen here.
+@Service
+public class VelocityRule implements TransferRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(VelocityRule.class);
+
+    private static final int STRIPES = 16;
+    private static final VelocityLimitExceededException[] REJECTIONS = {
+        VelocityLimitExceededException.MINUTE, VelocityLimitExceededException.HOUR, VelocityLimitExceededException.DAY
+    };
+
+    @Value("${seal.velocity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.velocity.max-wallets:100000}")
+    private int maxWallets;
+
+    // 0 disables a limit
+    @Value("${seal.velocity.minute.max-count:10}")
+    private long minuteMaxCount;
+
+    @Value("${seal.velocity.minute.max-amount:0}")
+    private BigDecimal minuteMaxAmount;
+
+    @Value("${seal.velocity.hour.max-count:60}")
+    private long hourMaxCount;
+
+    @Value("${seal.velocity.hour.max-amount:0}")
+    private BigDecimal hourMaxAmount;
+
+    @Value("${seal.velocity.day.max-count:200}")
+    private long dayMaxCount;
+
+    @Value("${seal.velocity.day.max-amount:0}")
+    private BigDecimal dayMaxAmount;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long[] maxCounts;
+    private long[] maxAmounts;
+    private int maxWalletsPerStripe;
+    private ConcurrentMap<Long, VelocityWindows>[] stripes;
+    private final Counter[] rejectedCounters = new Counter[VelocityWindows.NAMES.length];
+    private Counter seededCounter;
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void init() {
+        maxCounts = new long[] {minuteMaxCount, hourMaxCount, dayMaxCount};
+        maxAmounts = new long[] {Money.toMinor(minuteMaxAmount), Money.toMinor(hourMaxAmount), Money.toMinor(dayMaxAmount)};
+        maxWalletsPerStripe = Math.max(1, maxWallets / STRIPES);
+        stripes = new ConcurrentMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        for (int i = 0; i < rejectedCounters.length; i++) {
+            rejectedCounters[i] = Counter.builder("seal.velocity.rejected")
+                    .tag("window", VelocityWindows.NAMES[i])
+                    .register(meterRegistry);
+        }
+        seededCounter = Counter.builder("seal.velocity.seeded").register(meterRegistry);
+        Gauge.builder("seal.velocity.wallets", this, VelocityRule::size).register(meterRegistry);
+    }
+
+    @Override
+    public void check(Wallet fromWallet, Wallet toWallet, long amount) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        VelocityWindows windows = windowsFor(fromWallet.getId(), now);
+        int exceeded = windows.tryRecord(now, amount);
+        if (exceeded >= 0) {
+            rejectedCounters[exceeded].increment();
+            logger.debug("Velocity limit per {} hit by wallet {}", VelocityWindows.NAMES[exceeded], fromWallet.getId());
+            throw REJECTIONS[exceeded];
+        }
+        // Recorded up front so concurrent transfers see it; taken back if this one rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        windows.undo(now, amount);
+                    }
+                }
+            });
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentMap<Long, VelocityWindows> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    // Forgets every wallet; the next transfer of each reseeds from the database
+    void clear() {
+        for (ConcurrentMap<Long, VelocityWindows> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private VelocityWindows windowsFor(Long walletId, long now) {
+        ConcurrentMap<Long, VelocityWindows> stripe = stripes[Long.hashCode(walletId) & (STRIPES - 1)];
+        VelocityWindows windows = stripe.get(walletId);
+        if (windows != null) {
+            return windows;
+        }
+        if (stripe.size() >= maxWalletsPerStripe) {
+            evict(stripe, now);
+        }
+        // Seeded outside the map so the query never runs under a map lock; if two threads
+        // race, both seeds are identical and one is dropped
+        VelocityWindows seeded = seed(walletId, now);
+        VelocityWindows existing = stripe.putIfAbsent(walletId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private VelocityWindows seed(Long walletId, long now) {
+        VelocityWindows windows = new VelocityWindows(maxCounts, maxAmounts);
+        LocalDateTime since = LocalDateTime.now().minusNanos(VelocityWindows.DAY_MILLIS * 1_000_000);
+        for (TransactionRepository.SentAmount sent : transactionRepository.findSentSince(walletId, since)) {
+            long at = sent.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            windows.seed(Math.min(at, now), sent.getAmount());
+        }
+        seededCounter.increment();
+        return windows;
+    }
+
+    private void evict(ConcurrentMap<Long, VelocityWindows> stripe, long now) {
+        // Idle for a day: every window is empty again, dropping it loses nothing
+        stripe.values().removeIf(windows -> now - windows.lastActivityMillis() >= VelocityWindows.DAY_MILLIS);
+
+        // Still full: drop an arbitrary eighth. They reseed from the database on their
+        // next transfer, at the cost of one query each.
+        if (stripe.size() >= maxWalletsPerStripe) {
+            Iterator<VelocityWindows> it = stripe.values().iterator();
+            for (int i = 0; i < Math.max(1, maxWalletsPerStripe / 8) && it.hasNext(); i++) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.seal.seal.service;
 
+import com.seal.seal.entity.UserStatus;
 import com.seal.seal.entity.Wallet;
+import com.seal.seal.entity.WalletStatus;
+import com.seal.seal.exception.ResourceNotFoundException;
 import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.util.ShardKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Service
@@ -14,31 +17,40 @@ public class WalletService {
     @Autowired
     private WalletRepository walletRepository;
 
-    public Wallet findByUserId(Long userId) {
+    public Wallet findByUserId(@ShardKey(ShardKey.Type.ID) Long userId) {
         return walletRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Wallet not found for user"));
+                .orElseThrow(() -> new ResourceNotFoundException("Wallet not found for user"));
     }
 
-    public Wallet findByUserPhone(String phone) {
+    public Wallet findByUserPhone(@ShardKey String phone) {
         return walletRepository.findByUserPhone(phone)
-                .orElseThrow(() -> new RuntimeException("Wallet not found for phone: " + phone));
+                .orElseThrow(() -> new ResourceNotFoundException("Wallet not found for phone: " + phone));
     }
 
     @Transactional
-    public void updateBalance(Long walletId, BigDecimal newBalance) {
+    public void updateBalance(@ShardKey(ShardKey.Type.ID) Long walletId, long newBalance) {
         Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Wallet not found"));
         
         wallet.setBalance(newBalance);
         wallet.setUpdatedAt(LocalDateTime.now());
         walletRepository.save(wallet);
     }
 
-    public boolean hasSufficientBalance(Wallet wallet, BigDecimal amount) {
-        return wallet.getBalance().compareTo(amount) >= 0;
+    // Strong ETag for a view of the wallet. Every wallet update bumps the @Version,
+    // so balance and history views change exactly when it does. The scope keeps tags of
+    // different endpoints apart.
+    public String versionTag(@ShardKey String phone, String scope) {
+        WalletRepository.WalletVersion version = walletRepository.findVersionByUserPhone(phone)
+                .orElseThrow(() -> new ResourceNotFoundException("Wallet not found for phone: " + phone));
+        return "\"" + scope + "-" + version.getId() + "-" + version.getVersion() + "\"";
+    }
+
+    public boolean hasSufficientBalance(Wallet wallet, long amount) {
+        return wallet.getBalance() >= amount;
     }
 
     public boolean isWalletActive(Wallet wallet) {
-        return "ACTIVE".equals(wallet.getStatus()) && "ACTIVE".equals(wallet.getUser().getStatus());
+        return wallet.getStatus() == WalletStatus.ACTIVE && wallet.getUser().getStatus() == UserStatus.ACTIVE;
     }
 }
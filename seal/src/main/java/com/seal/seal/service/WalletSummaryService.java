@@ -0,0 +1,37 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.WalletDailySummary;
+import com.seal.seal.repository.WalletDailySummaryRepository;
+import com.seal.seal.util.ShardKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class WalletSummaryService {
+
+    @Autowired
+    private WalletDailySummaryRepository summaryRepository;
+
+    // Runs inside the transfer's transaction. Callers must already have written both
+    // wallet rows, so concurrent transfers on the same wallet are serialized by its row
+    // lock and the insert below cannot race with another first-of-the-day insert. Either id
+    // is null for the leg of a cross-shard transfer whose other side is on another shard.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfer(Long fromWalletId, Long toWalletId, BigDecimal amount, LocalDate day) {
+        if (fromWalletId != null && summaryRepository.addSent(fromWalletId, day, amount) == 0) {
+            summaryRepository.insert(fromWalletId, day, amount, 1, BigDecimal.ZERO, 0);
+        }
+        if (toWalletId != null && summaryRepository.addReceived(toWalletId, day, amount) == 0) {
+            summaryRepository.insert(toWalletId, day, BigDecimal.ZERO, 0, amount, 1);
+        }
+    }
+
+    public List<WalletDailySummary> getDailySummaries(@ShardKey(ShardKey.Type.ID) Long walletId, LocalDate from, LocalDate to) {
+        return summaryRepository.findByWalletIdAndDayBetweenOrderByDay(walletId, from, to);
+    }
+}
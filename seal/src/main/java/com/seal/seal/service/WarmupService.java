@@ -0,0 +1,125 @@
+package com.seal.seal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.repository.UserRepository;
+import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the hot request paths against the database before the pod takes traffic. Boot only
+// moves readiness to ACCEPTING_TRAFFIC after every ApplicationRunner has returned, so the
+// first real requests meet an open connection pool, prepared Hibernate query plans and
+// JIT-compiled code instead of paying for them. A failure is logged and startup goes on:
+// the readiness group also checks the database, so a pod without one stays out of rotation.
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    // Never registered: lookups miss and exercise the query path, not the cache
+    private static final String PROBE_PHONE = "000000000000000";
+
+    @Value("${seal.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seal.warmup.iterations:2000}")
+    private int iterations;
+
+    @Value("${seal.warmup.connections:10}")
+    private int connections;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile boolean completed;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int done = 0;
+        try {
+            openConnections();
+            for (; done < iterations; done++) {
+                exercise(done);
+            }
+            completed = true;
+        } catch (Exception e) {
+            logger.warn("Warm-up stopped early after {} of {} iterations: {}", done, iterations, e.getMessage());
+        }
+        long nanos = System.nanoTime() - start;
+        Timer.builder("seal.startup.warmup")
+                .description("Time spent warming the connection pool and hot paths before readiness")
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+        if (completed) {
+            logger.info("Warm-up finished in {} ms ({} iterations)", nanos / 1_000_000, done);
+        }
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    // Holds the connections at once so the pool has to open that many
+    private void openConnections() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                held.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private void exercise(int i) throws Exception {
+        userRepository.findByPhone(PROBE_PHONE);
+        walletRepository.findVersionByUserPhone(PROBE_PHONE);
+        transactionRepository.findSentSince(-1L, LocalDateTime.now());
+
+        String token = jwtUtil.generateToken(PROBE_PHONE);
+        jwtUtil.validateToken(token);
+        objectMapper.writeValueAsBytes(new TransactionResponse((long) i, PROBE_PHONE, PROBE_PHONE,
+                i, "SENT", TransactionStatus.SUCCESS, LocalDateTime.now()));
+    }
+}
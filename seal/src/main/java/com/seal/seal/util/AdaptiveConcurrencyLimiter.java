@@ -0,0 +1,69 @@
+package com.seal.seal.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// AIMD concurrency limit driven by observed latency: every fast sample taken near the
+// limit grows it by about one per limit's worth of requests, every slow or failed
+// sample shrinks it multiplicatively
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean success) {
+        int current = inFlight.getAndDecrement();
+        onSample(latencyNanos, success, current);
+    }
+
+    public void reject() {
+        rejected.incrementAndGet();
+    }
+
+    public int getLimit() { return (int) limit; }
+
+    public int getInFlight() { return inFlight.get(); }
+
+    public long getRejected() { return rejected.get(); }
+
+    // Fraction of the current limit in use
+    public double utilization() {
+        return inFlight.get() / limit;
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean success, int inFlightAtRelease) {
+        if (!success || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlightAtRelease * 2 >= limit) {
+            // Only grow when the limit is actually being exercised
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.seal.seal.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One immutable archive file. Each transaction is stored once per wallet it touches, rows
+// sorted by wallet and newest first, in deflate-compressed blocks of about blockBytes. A
+// wallet index at the end names the blocks each wallet's rows span, so a lookup inflates
+// only those. Read through a read-only memory mapping; nothing but the index is on heap.
+// Offsets are ints: segments are kept well under 2 GB by seal.archive.max-rows.
+//
+//   header   magic, version, entry count, newest created_at (seconds, nanos; since v2)
+//   blocks   raw length, compressed length, deflate data
+//   index    wallet count, (wallet id, first block, last block)..., block count, offsets...
+//   trailer  index offset, magic
+public final class ArchiveSegment {
+
+    private static final long MAGIC = 0x5345414c41524331L; // "SEALARC1"
+    private static final int VERSION = 2;
+    private static final int TRAILER_BYTES = 16;
+
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final int entries;
+    private final LocalDateTime newest;
+    private final long[] walletIds;
+    private final int[] firstBlocks;
+    private final int[] lastBlocks;
+    private final long[] blockOffsets;
+
+    private ArchiveSegment(Path path, MappedByteBuffer data, int entries, LocalDateTime newest, long[] walletIds,
+                           int[] firstBlocks, int[] lastBlocks, long[] blockOffsets) {
+        this.path = path;
+        this.data = data;
+        this.entries = entries;
+        this.newest = newest;
+        this.walletIds = walletIds;
+        this.firstBlocks = firstBlocks;
+        this.lastBlocks = lastBlocks;
+        this.blockOffsets = blockOffsets;
+    }
+
+    // Writes `file` (which must not exist) and forces it to disk before returning
+    public static void write(Path file, List<ArchivedTransaction> rows, int blockBytes) throws IOException {
+        List<Entry> sorted = new ArrayList<>(rows.size() * 2);
+        for (ArchivedTransaction row : rows) {
+            if (row.fromWalletId() != null) {
+                sorted.add(new Entry(row.fromWalletId(), row));
+            }
+            if (row.toWalletId() != null && !row.toWalletId().equals(row.fromWalletId())) {
+                sorted.add(new Entry(row.toWalletId(), row));
+            }
+        }
+        sorted.sort(Comparator.comparingLong(Entry::walletId)
+                .thenComparing(e -> e.row().createdAt(), Comparator.reverseOrder())
+                .thenComparing(e -> e.row().id(), Comparator.reverseOrder()));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+            LocalDateTime newest = rows.stream().map(ArchivedTransaction::createdAt)
+                    .max(Comparator.naturalOrder()).orElse(LocalDateTime.MIN);
+            out.writeLong(newest.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(newest.getNano());
+
+            List<Long> offsets = new ArrayList<>();
+            List<long[]> index = new ArrayList<>();
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(blockBytes + 256);
+            DataOutputStream block = new DataOutputStream(raw);
+            Deflater deflater = new Deflater();
+            try {
+                for (Entry entry : sorted) {
+                    int current = offsets.size();
+                    long[] last = index.isEmpty() ? null : index.get(index.size() - 1);
+                    if (last == null || last[0] != entry.walletId()) {
+                        index.add(new long[] {entry.walletId(), current, current});
+                    } else {
+                        last[2] = current;
+                    }
+                    writeRow(block, entry);
+                    if (raw.size() >= blockBytes) {
+                        offsets.add((long) out.size());
+                        writeBlock(out, raw, deflater);
+                    }
+                }
+                if (raw.size() > 0) {
+                    offsets.add((long) out.size());
+                    writeBlock(out, raw, deflater);
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long indexOffset = out.size();
+            out.writeInt(index.size());
+            for (long[] wallet : index) {
+                out.writeLong(wallet[0]);
+                out.writeInt((int) wallet[1]);
+                out.writeInt((int) wallet[2]);
+            }
+            out.writeInt(offsets.size());
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            out.writeLong(indexOffset);
+            out.writeLong(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    public static ArchiveSegment open(Path file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int size = data.capacity();
+        int version = size < 16 + TRAILER_BYTES ? 0 : data.getInt(8);
+        if (version < 1 || version > VERSION || data.getLong(0) != MAGIC || data.getLong(size - 8) != MAGIC) {
+            throw new IOException("Not an archive segment: " + file);
+        }
+        // Unknown for version 1, so such a segment is never skipped by date
+        LocalDateTime newest = version == 1 ? LocalDateTime.MAX
+                : LocalDateTime.ofEpochSecond(data.getLong(16), data.getInt(24), ZoneOffset.UTC);
+        int indexOffset = (int) data.getLong(size - TRAILER_BYTES);
+        ByteBuffer index = data.slice(indexOffset, size - TRAILER_BYTES - indexOffset);
+        int wallets = index.getInt();
+        long[] walletIds = new long[wallets];
+        int[] firstBlocks = new int[wallets];
+        int[] lastBlocks = new int[wallets];
+        for (int i = 0; i < wallets; i++) {
+            walletIds[i] = index.getLong();
+            firstBlocks[i] = index.getInt();
+            lastBlocks[i] = index.getInt();
+        }
+        long[] blockOffsets = new long[index.getInt()];
+        for (int i = 0; i < blockOffsets.length; i++) {
+            blockOffsets[i] = index.getLong();
+        }
+        return new ArchiveSegment(file, data, data.getInt(12), newest, walletIds, firstBlocks, lastBlocks,
+                blockOffsets);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // Rows stored, counting a transaction once per wallet
+    public int entries() {
+        return entries;
+    }
+
+    public LocalDateTime newest() {
+        return newest;
+    }
+
+    public boolean contains(long walletId) {
+        return Arrays.binarySearch(walletIds, walletId) >= 0;
+    }
+
+    // The wallet's rows, newest first. Safe for concurrent readers: the mapping is only
+    // read at absolute offsets.
+    public void read(long walletId, Consumer<ArchivedTransaction> sink) {
+        int wallet = Arrays.binarySearch(walletIds, walletId);
+        if (wallet < 0) {
+            return;
+        }
+        for (int block = firstBlocks[wallet]; block <= lastBlocks[wallet]; block++) {
+            readBlock(block, walletId, sink);
+        }
+    }
+
+    // The wallet's rows, oldest first, inflating one block at a time as it is consumed
+    public Iterator<ArchivedTransaction> readOldestFirst(long walletId) {
+        int wallet = Arrays.binarySearch(walletIds, walletId);
+        if (wallet < 0) {
+            return Collections.emptyIterator();
+        }
+        int firstBlock = firstBlocks[wallet];
+        return new Iterator<>() {
+            private int block = lastBlocks[wallet];
+            private final ArrayDeque<ArchivedTransaction> rows = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext() {
+                while (rows.isEmpty() && block >= firstBlock) {
+                    // Blocks hold the rows newest first
+                    readBlock(block--, walletId, rows::addFirst);
+                }
+                return !rows.isEmpty();
+            }
+
+            @Override
+            public ArchivedTransaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rows.removeFirst();
+            }
+        };
+    }
+
+    private void readBlock(int block, long walletId, Consumer<ArchivedTransaction> sink) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(block)));
+            while (in.available() > 0) {
+                long owner = in.readLong();
+                ArchivedTransaction row = readRow(in);
+                if (owner == walletId) {
+                    sink.accept(row);
+                } else if (owner > walletId) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive segment " + path, e);
+        }
+    }
+
+    private byte[] inflate(int block) throws IOException {
+        int offset = (int) blockOffsets[block];
+        byte[] raw = new byte[data.getInt(offset)];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.slice(offset + 8, data.getInt(offset + 4)));
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IOException("Truncated block " + block);
+                }
+                length += inflated;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Bad block " + block, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeBlock(DataOutputStream out, ByteArrayOutputStream raw, Deflater deflater) throws IOException {
+        byte[] input = raw.toByteArray();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(input.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        out.writeInt(input.length);
+        out.writeInt(compressed.size());
+        compressed.writeTo(out);
+        raw.reset();
+    }
+
+    private static void writeRow(DataOutputStream out, Entry entry) throws IOException {
+        ArchivedTransaction row = entry.row();
+        out.writeLong(entry.walletId());
+        out.writeLong(row.id());
+        writeId(out, row.fromWalletId());
+        writeId(out, row.fromUserId());
+        writeText(out, row.fromPhone());
+        writeId(out, row.toWalletId());
+        writeId(out, row.toUserId());
+        writeText(out, row.toPhone());
+        out.writeLong(row.amount());
+        out.writeShort(row.type());
+        out.writeShort(row.status());
+        out.writeLong(row.createdAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(row.createdAt().getNano());
+        writeText(out, row.counterpartyPhone());
+        writeId(out, row.sagaId());
+    }
+
+    private static ArchivedTransaction readRow(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        Long fromWalletId = readId(in);
+        Long fromUserId = readId(in);
+        String fromPhone = readText(in);
+        Long toWalletId = readId(in);
+        Long toUserId = readId(in);
+        String toPhone = readText(in);
+        long amount = in.readLong();
+        short type = in.readShort();
+        short status = in.readShort();
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        String counterpartyPhone = readText(in);
+        Long sagaId = readId(in);
+        return new ArchivedTransaction(id, fromWalletId, fromUserId, fromPhone, toWalletId, toUserId, toPhone,
+                amount, type, status, createdAt, counterpartyPhone, sagaId);
+    }
+
+    // Ids start at 1, so 0 stands for null
+    private static void writeId(DataOutputStream out, Long id) throws IOException {
+        out.writeLong(id != null ? id : 0);
+    }
+
+    private static Long readId(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        return id != 0 ? id : null;
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        out.writeBoolean(text != null);
+        if (text != null) {
+            out.writeUTF(text);
+        }
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private record Entry(long walletId, ArchivedTransaction row) {
+    }
+}
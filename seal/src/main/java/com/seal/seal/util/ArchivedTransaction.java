@@ -0,0 +1,14 @@
+package com.seal.seal.util;
+
+import java.time.LocalDateTime;
+
+// A transaction as kept in cold storage (ArchiveSegment): the row plus the wallet owners'
+// ids and phones, so history can be answered without the wallets and users tables. Codes
+// are the CodedEnum codes. Ids and phones are null where the row has no such side (the
+// legs of a cross-shard transfer).
+public record ArchivedTransaction(long id,
+                                  Long fromWalletId, Long fromUserId, String fromPhone,
+                                  Long toWalletId, Long toUserId, String toPhone,
+                                  long amount, short type, short status, LocalDateTime createdAt,
+                                  String counterpartyPhone, Long sagaId) {
+}
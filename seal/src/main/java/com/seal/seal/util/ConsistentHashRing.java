@@ -0,0 +1,54 @@
+package com.seal.seal.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Maps keys onto nodes 0..n-1. Each node owns many points on a 64-bit ring and a key
+// belongs to the first point at or after its hash, so adding a node moves only about
+// 1/(n+1) of the keys, all of them onto the new node.
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(int nodes, int pointsPerNode) {
+        long[][] entries = new long[nodes * pointsPerNode][];
+        int i = 0;
+        for (int node = 0; node < nodes; node++) {
+            for (int point = 0; point < pointsPerNode; point++) {
+                entries[i++] = new long[] {hash("node-" + node + "#" + point), node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        points = new long[entries.length];
+        owners = new int[entries.length];
+        for (i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    public int nodeFor(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a over the UTF-8 bytes, then the murmur3 finalizer so that similar keys (phone
+    // numbers differ in the last digits) spread over the whole ring
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
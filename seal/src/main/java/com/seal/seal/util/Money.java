@@ -0,0 +1,26 @@
+package com.seal.seal.util;
+
+import com.seal.seal.exception.InvalidRequestException;
+import java.math.BigDecimal;
+
+// Amounts are held as long minor units (cents) inside the app. BigDecimal only appears
+// at the edges: request parsing, response mapping and the NUMERIC(15, 2) columns.
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {}
+
+    // Rejects amounts with more precision than the currency has instead of rounding them
+    public static long toMinor(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw InvalidRequestException.AMOUNT_PRECISION;
+        }
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
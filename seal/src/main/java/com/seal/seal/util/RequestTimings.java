@@ -0,0 +1,149 @@
+package com.seal.seal.util;
+
+import java.util.Arrays;
+
+// Per-request time breakdown, bound to the request thread by RequestTimingFilter. Phases
+// nest (service -> repository -> commit) and time is exclusive: while an inner phase is
+// open the outer one is paused, so the phases add up to the time spent inside them.
+// Every method is a no-op on threads without a request (schedulers, warm-up).
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final int MAX_PHASES = 16;
+
+    private final long startNanos = System.nanoTime();
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] nanos = new long[MAX_PHASES];
+    private final int[] counts = new int[MAX_PHASES];
+    private int phaseCount;
+
+    private int[] stack = new int[8];
+    private int depth;
+    private long markNanos;
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    // Pauses the open phase and starts `name`; every enter needs a matching exit
+    public static void enter(String name) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.push(name);
+        }
+    }
+
+    public static void exit() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.pop();
+        }
+    }
+
+    // Closes phases still open when the request ends, such as "write"
+    public void closeAll() {
+        while (depth > 0) {
+            pop();
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int phaseCount() {
+        return phaseCount;
+    }
+
+    public String name(int phase) {
+        return names[phase];
+    }
+
+    public long nanos(int phase) {
+        return nanos[phase];
+    }
+
+    public int count(int phase) {
+        return counts[phase];
+    }
+
+    // Server-Timing syntax: jwt;dur=0.41, user;dur=1.20;desc="2 calls", total;dur=6.10
+    public String toServerTiming(long totalNanos) {
+        StringBuilder sb = new StringBuilder(phaseCount * 24 + 20);
+        for (int i = 0; i < phaseCount; i++) {
+            sb.append(names[i]).append(";dur=").append(millis(nanos[i]));
+            if (counts[i] > 1) {
+                sb.append(";desc=\"").append(counts[i]).append(" calls\"");
+            }
+            sb.append(", ");
+        }
+        return sb.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    private void push(String name) {
+        long now = System.nanoTime();
+        int phase = indexOf(name);
+        if (depth > 0) {
+            int open = stack[depth - 1];
+            if (open >= 0) {
+                nanos[open] += now - markNanos;
+            }
+            // Re-entering the open phase (service calling service) is still one call
+            if (open != phase && phase >= 0) {
+                counts[phase]++;
+            }
+        } else if (phase >= 0) {
+            counts[phase]++;
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = phase;
+        markNanos = now;
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        int phase = stack[--depth];
+        if (phase >= 0) {
+            nanos[phase] += now - markNanos;
+        }
+        markNanos = now;
+    }
+
+    // -1 once MAX_PHASES names are in use; that time is dropped rather than misattributed
+    private int indexOf(String name) {
+        for (int i = 0; i < phaseCount; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        if (phaseCount == MAX_PHASES) {
+            return -1;
+        }
+        names[phaseCount] = name;
+        return phaseCount++;
+    }
+
+    private static String millis(long nanos) {
+        long hundredths = nanos / 10_000;
+        long fraction = hundredths % 100;
+        return hundredths / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
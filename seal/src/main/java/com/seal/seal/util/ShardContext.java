@@ -0,0 +1,51 @@
+package com.seal.seal.util;
+
+import java.util.function.Supplier;
+
+// The shard the current thread's database work goes to, read by ShardRoutingDataSource
+// when a connection is taken. Bound around service calls by their @ShardKey parameter and
+// explicitly by the saga and the per-shard jobs. Nothing bound means shard 0.
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    // Binds `shard` and returns the previous binding for exit
+    public static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void exit(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = enter(shard);
+        try {
+            return work.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        Integer previous = enter(shard);
+        try {
+            work.run();
+        } finally {
+            exit(previous);
+        }
+    }
+}
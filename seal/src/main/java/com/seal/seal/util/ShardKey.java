@@ -0,0 +1,25 @@
+package com.seal.seal.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks the service method parameter that decides the shard the call runs on. Only acts
+// in sharded mode, and only when no shard is bound yet: the outermost call decides, so a
+// service calling another stays on its shard.
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+
+    Type value() default Type.PHONE;
+
+    enum Type {
+        // A user's phone, placed on the consistent hash ring
+        PHONE,
+        // A user, wallet or transaction id (Long), or a User; ids carry their shard
+        ID,
+        // A refresh token, which carries its shard as a prefix
+        REFRESH_TOKEN
+    }
+}
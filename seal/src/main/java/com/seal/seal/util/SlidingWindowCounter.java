@@ -0,0 +1,72 @@
+package com.seal.seal.util;
+
+import java.util.Arrays;
+
+// Count and sum of events over the last `buckets` x `bucketMillis`, kept in a ring of
+// buckets. Each slot remembers which bucket it holds, so stale slots are recognised and
+// reset lazily instead of by a timer. Not thread-safe; callers lock.
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final long[] slotBucket;
+    private final long[] counts;
+    private final long[] sums;
+
+    public SlidingWindowCounter(int buckets, long bucketMillis) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.slotBucket = new long[buckets];
+        this.counts = new long[buckets];
+        this.sums = new long[buckets];
+        Arrays.fill(slotBucket, Long.MIN_VALUE);
+    }
+
+    public long spanMillis() {
+        return buckets * bucketMillis;
+    }
+
+    public void add(long nowMillis, long amount) {
+        long bucket = nowMillis / bucketMillis;
+        int slot = (int) (bucket % buckets);
+        if (slotBucket[slot] != bucket) {
+            slotBucket[slot] = bucket;
+            counts[slot] = 0;
+            sums[slot] = 0;
+        }
+        counts[slot]++;
+        sums[slot] += amount;
+    }
+
+    // Takes back an add made at atMillis, unless its bucket has already left the window
+    public void remove(long atMillis, long amount) {
+        long bucket = atMillis / bucketMillis;
+        int slot = (int) (bucket % buckets);
+        if (slotBucket[slot] == bucket) {
+            counts[slot]--;
+            sums[slot] -= amount;
+        }
+    }
+
+    public long count(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets;
+        long count = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (slotBucket[i] > oldest) {
+                count += counts[i];
+            }
+        }
+        return count;
+    }
+
+    public long sum(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets;
+        long sum = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (slotBucket[i] > oldest) {
+                sum += sums[i];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,155 @@
+package com.seal.seal.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Per-statement-shape counters fed by SqlStatisticsDataSource. A shape is the SQL text with
+// literals and IN lists folded to "?", so "where id in (?,?)" and "where id in (?,?,?)"
+// count as one statement and no value ever reaches the stats or the log. Shapes are
+// capped; past max-shapes new ones are folded into OTHER.
+public class SqlStatementStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementStatistics.class);
+
+    public static final String OTHER = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowNanos;
+    private final int maxShapes;
+    private final ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    // Raw SQL -> shape, so the regexes run once per distinct string rather than per execution
+    private final ConcurrentHashMap<String, Shape> bySql = new ConcurrentHashMap<>();
+    private final LongAdder slowStatements = new LongAdder();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    public SqlStatementStatistics(long slowMillis, int maxShapes) {
+        this.slowNanos = slowMillis * 1_000_000L;
+        this.maxShapes = maxShapes;
+    }
+
+    public Shape shapeOf(String sql) {
+        Shape shape = bySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            shape = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(normalized, Shape::new)
+                    : shapes.computeIfAbsent(OTHER, Shape::new);
+        }
+        if (bySql.size() < maxShapes * 4) {
+            bySql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    public void record(Shape shape, long nanos, boolean failed) {
+        shape.latency.record(nanos / 1_000);
+        if (failed) {
+            shape.errors.increment();
+        }
+        if (nanos >= slowNanos) {
+            slowStatements.increment();
+            // The shape carries placeholders only, so bind values never reach the log
+            logger.warn("Slow SQL: {} ms{}, {} bind parameter(s) redacted: {}", nanos / 1_000_000,
+                    failed ? " (failed)" : "", shape.parameterCount, shape.sql);
+        }
+    }
+
+    public long slowStatements() {
+        return slowStatements.sum();
+    }
+
+    public void reset() {
+        shapes.clear();
+        bySql.clear();
+        slowStatements.reset();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    // Most expensive statements first (total time); what the sqlstats endpoint returns
+    public List<Map<String, Object>> snapshot(int limit) {
+        List<Shape> sorted = new ArrayList<>(shapes.values());
+        sorted.sort(Comparator.comparingLong((Shape s) -> s.latency.totalMicros()).reversed());
+        List<Map<String, Object>> result = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (Shape shape : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            long count = shape.latency.count();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sql", shape.sql);
+            entry.put("count", count);
+            entry.put("errors", shape.errors.sum());
+            entry.put("rows", shape.rows.sum());
+            entry.put("totalMs", millis(shape.latency.totalMicros()));
+            entry.put("meanMs", count == 0 ? 0.0 : millis(shape.latency.totalMicros() / count));
+            entry.put("p50Ms", millis(shape.latency.percentileMicros(0.50)));
+            entry.put("p95Ms", millis(shape.latency.percentileMicros(0.95)));
+            entry.put("p99Ms", millis(shape.latency.percentileMicros(0.99)));
+            entry.put("maxMs", millis(shape.latency.maxMicros()));
+            result.add(entry);
+        }
+        return result;
+    }
+
+    public long sinceMillis() {
+        return sinceMillis;
+    }
+
+    public int shapeCount() {
+        return shapes.size();
+    }
+
+    public static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("(?, ...)");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public static final class Shape {
+
+        private final String sql;
+        private final int parameterCount;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        private Shape(String sql) {
+            this.sql = sql;
+            this.parameterCount = (int) sql.chars().filter(c -> c == '?').count();
+        }
+
+        public String sql() {
+            return sql;
+        }
+
+        public long count() {
+            return latency.count();
+        }
+
+        public long rows() {
+            return rows.sum();
+        }
+
+        public void addRows(long count) {
+            rows.add(count);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.seal.seal.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Per-key token bucket implemented as GCRA: each key holds a single "theoretical
+// arrival time" updated by CAS, so acquiring never blocks or takes a lock.
+// Keys are spread over stripes that are bounded and evicted independently. Only full
+// buckets are ever evicted: a stripe full of active keys turns new keys away rather
+// than reset a bucket that is limiting someone.
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final ConcurrentMap<String, AtomicLong>[] stripes;
+    // Per stripe: while full, no bucket in it refills before this time, so new keys are
+    // rejected without scanning it again
+    private final AtomicLongArray refilledAt = new AtomicLongArray(STRIPES);
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeysPerStripe;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(int capacity, Duration refillPerToken, int maxKeys) {
+        this.emissionIntervalNanos = refillPerToken.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.stripes = new ConcurrentMap[STRIPES];
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            refilledAt.set(i, now);
+        }
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanoseconds until one is available
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        int index = stripeIndex(key);
+        ConcurrentMap<String, AtomicLong> stripe = stripes[index];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                long waitNanos = evict(index, now);
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long waitNanos = newTat - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static int stripeIndex(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    // A bucket whose arrival time has passed is full again and behaves exactly like a
+    // missing one, so dropping it loses no state. Returns 0 if there is room for a new
+    // key, otherwise the nanoseconds until the first bucket in the stripe is full.
+    private long evict(int index, long now) {
+        long waitNanos = refilledAt.get(index) - now;
+        if (waitNanos > 0) {
+            return waitNanos;
+        }
+        ConcurrentMap<String, AtomicLong> stripe = stripes[index];
+        long earliest = Long.MAX_VALUE;
+        for (Iterator<AtomicLong> it = stripe.values().iterator(); it.hasNext(); ) {
+            long remaining = it.next().get() - now;
+            if (remaining <= 0) {
+                it.remove();
+            } else {
+                earliest = Math.min(earliest, remaining);
+            }
+        }
+        // Keys added by other threads meanwhile were not scanned; let this one in
+        if (stripe.size() < maxKeysPerStripe || earliest == Long.MAX_VALUE) {
+            return 0;
+        }
+        refilledAt.set(index, now + earliest);
+        return earliest;
+    }
+}
@@ -0,0 +1,165 @@
+package com.seal.seal.util;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// The cold storage of one shard: a directory of ArchiveSegments, one per archival run.
+// Segments are written under a temporary name and renamed into place, so a reader never
+// sees half a file, and are never modified afterwards; readers need no locking. A row
+// archived twice (a run that died between writing its segment and deleting the rows) is
+// returned once.
+public class TransactionArchive {
+
+    private static final String SUFFIX = ".seg";
+    private static final Comparator<ArchivedTransaction> OLDEST_FIRST =
+            Comparator.comparing(ArchivedTransaction::createdAt).thenComparingLong(ArchivedTransaction::id);
+
+    private final Path directory;
+    private final int blockBytes;
+    private volatile List<ArchiveSegment> segments = List.of();
+
+    public TransactionArchive(Path directory, int blockBytes) {
+        this.directory = directory;
+        this.blockBytes = blockBytes;
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    // Opens segments that appeared since the last call, including those written by other
+    // nodes sharing the directory; returns how many
+    public synchronized int refresh() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        Set<Path> known = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            known.add(segment.path());
+        }
+        List<ArchiveSegment> opened = new ArrayList<>(segments);
+        int added = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (!known.contains(file)) {
+                    opened.add(ArchiveSegment.open(file));
+                    added++;
+                }
+            }
+        }
+        if (added > 0) {
+            opened.sort(Comparator.comparing(segment -> segment.path().getFileName().toString()));
+            segments = List.copyOf(opened);
+        }
+        return added;
+    }
+
+    // Rows must be sorted by id; the segment is named after the first and last
+    public synchronized ArchiveSegment append(List<ArchivedTransaction> rows) throws IOException {
+        Files.createDirectories(directory);
+        String name = String.format("%019d-%019d-%d", rows.get(0).id(), rows.get(rows.size() - 1).id(),
+                System.currentTimeMillis());
+        Path temporary = directory.resolve(name + ".tmp");
+        Path file = directory.resolve(name + SUFFIX);
+        try {
+            ArchiveSegment.write(temporary, rows, blockBytes);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        ArchiveSegment segment = ArchiveSegment.open(file);
+        List<ArchiveSegment> opened = new ArrayList<>(segments);
+        opened.add(segment);
+        segments = List.copyOf(opened);
+        return segment;
+    }
+
+    // Whether any archived row was created at or after `time`; answered from the segment
+    // headers, without reading a block
+    public boolean hasRowsSince(LocalDateTime time) {
+        for (ArchiveSegment segment : segments) {
+            if (!segment.newest().isBefore(time)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Every archived row of the wallet, newest first
+    public List<ArchivedTransaction> find(long walletId) {
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            segment.read(walletId, row -> {
+                if (seen.add(row.id())) {
+                    rows.add(row);
+                }
+            });
+        }
+        rows.sort(OLDEST_FIRST.reversed());
+        return rows;
+    }
+
+    // Every archived row of the wallet, oldest first, merged across segments as it is
+    // consumed: memory holds one inflated block per segment, not the wallet's history.
+    // A row in two segments comes out of the merge twice in a row and is skipped.
+    public Iterator<ArchivedTransaction> findOldestFirst(long walletId) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::row, OLDEST_FIRST));
+        for (ArchiveSegment segment : segments) {
+            if (segment.contains(walletId)) {
+                Iterator<ArchivedTransaction> rows = segment.readOldestFirst(walletId);
+                if (rows.hasNext()) {
+                    heads.add(new Head(rows.next(), rows));
+                }
+            }
+        }
+        return new Iterator<>() {
+            private long lastId;
+
+            @Override
+            public boolean hasNext() {
+                while (!heads.isEmpty() && heads.peek().row().id() == lastId) {
+                    advance();
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public ArchivedTransaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ArchivedTransaction row = advance();
+                lastId = row.id();
+                return row;
+            }
+
+            private ArchivedTransaction advance() {
+                Head head = heads.poll();
+                if (head.rows().hasNext()) {
+                    heads.add(new Head(head.rows().next(), head.rows()));
+                }
+                return head.row();
+            }
+        };
+    }
+
+    private record Head(ArchivedTransaction row, Iterator<ArchivedTransaction> rows) {
+    }
+}
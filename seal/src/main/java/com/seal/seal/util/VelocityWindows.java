@@ -0,0 +1,67 @@
+package com.seal.seal.util;
+
+// Per-wallet sent count and amount over the last minute, hour and day. A transfer is
+// checked against and recorded in all three windows under one lock, so concurrent
+// transfers from a wallet cannot both squeeze under a limit.
+public class VelocityWindows {
+
+    public static final int MINUTE = 0;
+    public static final int HOUR = 1;
+    public static final int DAY = 2;
+    public static final String[] NAMES = {"minute", "hour", "day"};
+
+    // Span of the longest window; older history never matters
+    public static final long DAY_MILLIS = 86_400_000L;
+
+    private final SlidingWindowCounter[] windows = {
+        new SlidingWindowCounter(60, 1_000),
+        new SlidingWindowCounter(60, 60_000),
+        new SlidingWindowCounter(96, 900_000)
+    };
+    // Indexed like windows; 0 means no limit
+    private final long[] maxCounts;
+    private final long[] maxAmounts;
+    private volatile long lastActivityMillis;
+
+    public VelocityWindows(long[] maxCounts, long[] maxAmounts) {
+        this.maxCounts = maxCounts;
+        this.maxAmounts = maxAmounts;
+    }
+
+    // Records the transfer and returns -1 if every window stays within its limits,
+    // otherwise records nothing and returns the first window that would be exceeded
+    public synchronized int tryRecord(long nowMillis, long amount) {
+        for (int i = 0; i < windows.length; i++) {
+            if (maxCounts[i] > 0 && windows[i].count(nowMillis) + 1 > maxCounts[i]) {
+                return i;
+            }
+            if (maxAmounts[i] > 0 && windows[i].sum(nowMillis) + amount > maxAmounts[i]) {
+                return i;
+            }
+        }
+        for (SlidingWindowCounter window : windows) {
+            window.add(nowMillis, amount);
+        }
+        lastActivityMillis = nowMillis;
+        return -1;
+    }
+
+    // Rolls back a tryRecord whose transfer did not commit
+    public synchronized void undo(long atMillis, long amount) {
+        for (SlidingWindowCounter window : windows) {
+            window.remove(atMillis, amount);
+        }
+    }
+
+    // Replays a transfer already committed, without checking limits
+    public synchronized void seed(long atMillis, long amount) {
+        for (SlidingWindowCounter window : windows) {
+            window.add(atMillis, amount);
+        }
+        lastActivityMillis = Math.max(lastActivityMillis, atMillis);
+    }
+
+    public long lastActivityMillis() {
+        return lastActivityMillis;
+    }
+}
@@ -0,0 +1,75 @@
+package com.seal.seal;
+
+import com.seal.seal.service.HoldExpiryService;
+import com.seal.seal.service.WarmupService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Full application starts, eager and lazy. Each run gets its own H2 database so its
+// create-drop schema does not touch the one shared by the cached test contexts, and no
+// second-level cache: closing a context closes the JCache manager, which every cached
+// context shares. The benchmark reports wall time from launch to readiness with -Pbenchmark.
+class StartupTests {
+
+	@Test
+	void readinessOpensAfterWarmup() {
+		try (ConfigurableApplicationContext context = start(false)) {
+			assertReady(context);
+		}
+	}
+
+	@Test
+	void lazyStartStillRunsScheduledJobs() {
+		try (ConfigurableApplicationContext context = start(true)) {
+			assertReady(context);
+			assertFalse(context.getBeanFactory().containsSingleton("statementExportService"));
+		}
+	}
+
+	@Test
+	@Tag("benchmark")
+	void startupTime() {
+		// The first start in a JVM also pays for class loading, which the later two share
+		long cold = timeToReady(false);
+		long eager = timeToReady(false);
+		long lazy = timeToReady(true);
+		System.out.printf("startup to readiness: cold=%d ms, eager=%d ms, lazy=%d ms%n", cold, eager, lazy);
+	}
+
+	private static long timeToReady(boolean lazy) {
+		long start = System.nanoTime();
+		try (ConfigurableApplicationContext context = start(lazy)) {
+			return (System.nanoTime() - start) / 1_000_000;
+		}
+	}
+
+	private static ConfigurableApplicationContext start(boolean lazy) {
+		return new SpringApplicationBuilder(SealApplication.class)
+				.profiles("test")
+				.run("--spring.datasource.url=jdbc:h2:mem:startup-" + UUID.randomUUID(),
+						"--server.port=0",
+						"--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+						"--spring.main.lazy-initialization=" + lazy);
+	}
+
+	private static void assertReady(ConfigurableApplicationContext context) {
+		assertEquals(ReadinessState.ACCEPTING_TRAFFIC,
+				context.getBean(ApplicationAvailability.class).getReadinessState());
+		assertTrue(context.getBean(WarmupService.class).isCompleted());
+		// Scheduled-job beans are excluded from lazy initialization
+		assertTrue(context.getBeanFactory().containsSingleton(beanName(context, HoldExpiryService.class)));
+	}
+
+	private static String beanName(ConfigurableApplicationContext context, Class<?> type) {
+		return context.getBeanNamesForType(type)[0];
+	}
+}
@@ -0,0 +1,42 @@
+package com.seal.seal.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The hinted class names are strings, so a library upgrade that moves a class would only
+// show up as a failure inside the native executable. Resolving them here catches it first.
+class NativeHintsTests {
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	@Test
+	void hintedClassesExistOnTheClasspath() {
+		for (String type : NativeHints.JJWT_TYPES) {
+			assertDoesNotThrow(() -> Class.forName(type, false, classLoader), type);
+		}
+		assertDoesNotThrow(() -> Class.forName(NativeHints.EHCACHE_PROVIDER, false, classLoader));
+	}
+
+	@Test
+	void registersLibraryAndProxyHints() {
+		RuntimeHints hints = new RuntimeHints();
+		new NativeHints().registerHints(hints, classLoader);
+
+		for (String type : NativeHints.JJWT_TYPES) {
+			assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+					.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints), type);
+		}
+		assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache-core.xsd").test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(org.ehcache.xml.model.ObjectFactory.class)
+				.withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+		assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(java.sql.PreparedStatement.class).test(hints));
+	}
+}
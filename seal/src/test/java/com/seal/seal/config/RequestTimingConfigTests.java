@@ -0,0 +1,69 @@
+package com.seal.seal.config;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.service.TransactionService;
+import com.seal.seal.service.UserService;
+import com.seal.seal.util.RequestTimings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RequestTimingConfigTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Test
+	void transferIsBrokenDownByLayer() {
+		String sender = "0189100" + System.nanoTime() % 100000;
+		String receiver = "0189200" + System.nanoTime() % 100000;
+		User user = userService.registerUser(sender, "secret1");
+		userService.registerUser(receiver, "secret1");
+		Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+		wallet.setBalance(10_000);
+		walletRepository.save(wallet);
+
+		RequestTimings timings = RequestTimings.begin();
+		try {
+			transactionService.transferMoney(sender, receiver, 100);
+		} finally {
+			RequestTimings.end();
+		}
+
+		Set<String> phases = new HashSet<>();
+		long sum = 0;
+		for (int i = 0; i < timings.phaseCount(); i++) {
+			phases.add(timings.name(i));
+			sum += timings.nanos(i);
+		}
+		assertTrue(phases.containsAll(Set.of("svc", "wallet", "transaction", "begin", "commit")), phases.toString());
+		// Exclusive phases never add up to more than the wall time
+		assertTrue(sum <= timings.elapsedNanos());
+		assertEquals(1, timings.count(indexOf(timings, "commit")));
+	}
+
+	private static int indexOf(RequestTimings timings, String name) {
+		for (int i = 0; i < timings.phaseCount(); i++) {
+			if (timings.name(i).equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,79 @@
+package com.seal.seal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.entity.TransactionStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization time and bytes for one 20-row history page, JSON vs CBOR, with and without
+// gzip. Run with -Pbenchmark; it reports and asserts nothing.
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseEncodingBenchmarkTests {
+
+	private static final int PAGE_SIZE = 20;
+	private static final int ITERATIONS = 20_000;
+
+	@Autowired
+	private ObjectMapper jsonMapper;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cborConverter;
+
+	@Test
+	void historyPageEncodings() throws IOException {
+		List<TransactionResponse> page = historyPage();
+		ObjectMapper cborMapper = cborConverter.getObjectMapper();
+
+		byte[] json = jsonMapper.writeValueAsBytes(page);
+		byte[] cbor = cborMapper.writeValueAsBytes(page);
+		long jsonNanos = time(jsonMapper, page);
+		long cborNanos = time(cborMapper, page);
+
+		System.out.printf("history page (%d rows): json=%d B (gzip %d B, %d ns/op), cbor=%d B (gzip %d B, %d ns/op)%n",
+				PAGE_SIZE, json.length, gzip(json), jsonNanos, cbor.length, gzip(cbor), cborNanos);
+	}
+
+	private static long time(ObjectMapper mapper, Object value) throws IOException {
+		for (int i = 0; i < ITERATIONS; i++) {
+			mapper.writeValueAsBytes(value);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			mapper.writeValueAsBytes(value);
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+
+	private static int gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.size();
+	}
+
+	private static List<TransactionResponse> historyPage() {
+		List<TransactionResponse> page = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			page.add(new TransactionResponse((long) 100_000 + i, "01700000" + (10 + i), "01800000" + (10 + i),
+					new BigDecimal("125.50").add(BigDecimal.valueOf(i)), i % 2 == 0 ? "SENT" : "RECEIVED",
+					TransactionStatus.SUCCESS, now.minusMinutes(i)));
+		}
+		return page;
+	}
+}
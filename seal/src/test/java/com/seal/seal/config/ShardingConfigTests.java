@@ -0,0 +1,166 @@
+package com.seal.seal.config;
+
+import com.seal.seal.entity.RefreshToken;
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.UserStatus;
+import com.seal.seal.exception.InactiveWalletException;
+import com.seal.seal.exception.InvalidRequestException;
+import com.seal.seal.service.RefreshTokenService;
+import com.seal.seal.service.TransactionService;
+import com.seal.seal.service.UserService;
+import com.seal.seal.service.WalletService;
+import com.seal.seal.util.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"seal.sharding.enabled=true",
+		"seal.sharding.urls=jdbc:h2:mem:shard0,jdbc:h2:mem:shard1,jdbc:h2:mem:shard2",
+		"seal.sharding.initialize-schema=true"
+})
+@ActiveProfiles("test")
+class ShardingConfigTests {
+
+	private static final int SHARDS = 3;
+	// Minor units
+	private static final long INITIAL_BALANCE = 100_000;
+	private static final long AMOUNT = 2_500;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Test
+	void usersLandOnTheirShardAndTheirIdsNameIt() throws Exception {
+		// Ids keep routing when a shard is added
+		ShardRouter resized = new ShardRouter(SHARDS + 1, 160);
+		for (int i = 0; i < 30; i++) {
+			String phone = "0187" + String.format("%07d", (System.nanoTime() + i) % 10_000_000);
+			User user = userService.registerUser(phone, "secret1");
+			int shard = shardRouter.shardOfPhone(phone);
+			assertEquals(shard, shardRouter.shardOfId(user.getId()), phone);
+			assertEquals(shard, resized.shardOfId(user.getId()), phone);
+			assertEquals(shard, resized.shardOfId(walletService.findByUserId(user.getId()).getId()), phone);
+			for (int s = 0; s < SHARDS; s++) {
+				Integer rows = shard(s).queryForObject("SELECT COUNT(*) FROM users WHERE phone = ?", Integer.class, phone);
+				assertEquals(s == shard ? 1 : 0, rows, phone + " on shard " + s);
+			}
+			assertEquals(phone, userService.findByPhone(phone).getPhone());
+		}
+	}
+
+	@Test
+	void crossShardTransferMovesFundsOnBothShards() throws Exception {
+		String[] phones = phonesOnDifferentShards("0187100");
+		String sender = phones[0];
+		String receiver = phones[1];
+		User senderUser = fund(sender);
+		User receiverUser = fund(receiver);
+
+		Transaction transfer = transactionService.transferMoney(sender, receiver, AMOUNT);
+		assertEquals(TransactionStatus.SUCCESS, transfer.getStatus());
+		assertEquals(INITIAL_BALANCE - AMOUNT, walletService.findByUserPhone(sender).getBalance());
+		assertEquals(0, walletService.findByUserPhone(sender).getHeldBalance());
+		assertEquals(INITIAL_BALANCE + AMOUNT, walletService.findByUserPhone(receiver).getBalance());
+
+		// Each shard holds its own leg; the other side is known by phone only
+		List<Transaction> sent = transactionService.getUserTransactions(senderUser.getId());
+		List<Transaction> received = transactionService.getUserTransactions(receiverUser.getId());
+		assertEquals(1, sent.size());
+		assertEquals(1, received.size());
+		assertEquals(receiver, sent.get(0).getToPhone());
+		assertEquals(sender, received.get(0).getFromPhone());
+		assertEquals(transfer.getId(), received.get(0).getSagaId());
+		assertNotEquals(shardRouter.shardOfId(sent.get(0).getId()), shardRouter.shardOfId(received.get(0).getId()));
+
+		// Holds reference the receiver's wallet, so they stay on one shard
+		assertThrows(InvalidRequestException.class, () -> transactionService.authorizeHold(sender, receiver, AMOUNT));
+	}
+
+	@Test
+	void failedCreditIsCompensated() throws Exception {
+		String[] phones = phonesOnDifferentShards("0187200");
+		String sender = phones[0];
+		String receiver = phones[1];
+		User senderUser = fund(sender);
+		fund(receiver);
+		userService.updateStatus(receiver, UserStatus.BLOCKED);
+
+		assertThrows(InactiveWalletException.class, () -> transactionService.transferMoney(sender, receiver, AMOUNT));
+		assertEquals(INITIAL_BALANCE, walletService.findByUserPhone(sender).getBalance());
+		assertEquals(0, walletService.findByUserPhone(sender).getHeldBalance());
+		assertEquals(INITIAL_BALANCE, walletService.findByUserPhone(receiver).getBalance());
+		List<Transaction> sent = transactionService.getUserTransactions(senderUser.getId());
+		assertEquals(1, sent.size());
+		assertEquals(TransactionStatus.VOIDED, sent.get(0).getStatus());
+	}
+
+	@Test
+	void refreshTokensRouteToTheirShard() throws Exception {
+		String phone = phonesOnDifferentShards("0187300")[1];
+		User user = userService.registerUser(phone, "secret1");
+		int shard = shardRouter.shardOfPhone(phone);
+
+		RefreshToken token = refreshTokenService.createRefreshToken(user);
+		assertTrue(token.getToken().startsWith(shard + "."), token.getToken());
+		assertEquals(shard, shardRouter.shardOfRefreshToken(token.getToken()));
+		assertTrue(refreshTokenService.findByToken(token.getToken()).isPresent());
+
+		RefreshToken rotated = refreshTokenService.rotate(token.getToken());
+		assertTrue(rotated.getToken().startsWith(shard + "."), rotated.getToken());
+		assertTrue(refreshTokenService.findByToken(token.getToken()).isEmpty());
+		assertTrue(refreshTokenService.findByToken(rotated.getToken()).isPresent());
+	}
+
+	private User fund(String phone) {
+		User user = userService.registerUser(phone, "secret1");
+		walletService.updateBalance(walletService.findByUserId(user.getId()).getId(), INITIAL_BALANCE);
+		return user;
+	}
+
+	// Phones with the given prefix on shard 0 and on a later shard, so the pair is cross-shard
+	private String[] phonesOnDifferentShards(String prefix) {
+		String first = null;
+		for (int i = 0; ; i++) {
+			String phone = prefix + String.format("%04d", (System.nanoTime() / 1000 + i) % 10_000);
+			int shard = shardRouter.shardOfPhone(phone);
+			if (first == null && shard == 0) {
+				first = phone;
+			} else if (first != null && shard != 0) {
+				return new String[] {first, phone};
+			}
+		}
+	}
+
+	private JdbcTemplate shard(int shard) throws Exception {
+		List<HikariDataSource> pools = dataSource.unwrap(ShardRoutingDataSource.class).getShards();
+		return new JdbcTemplate(pools.get(shard));
+	}
+}
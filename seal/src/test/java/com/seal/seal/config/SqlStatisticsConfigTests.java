@@ -0,0 +1,112 @@
+package com.seal.seal.config;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.repository.WalletRepository;
+import com.seal.seal.service.TransactionService;
+import com.seal.seal.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatisticsConfigTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private SqlStatsEndpoint endpoint;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void poolIsWrappedAndStillUnwraps() throws Exception {
+		assertInstanceOf(SqlStatisticsDataSource.class, dataSource);
+		assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+		assertInstanceOf(HikariDataSource.class, dataSource.unwrap(HikariDataSource.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void transfersShowUpPerStatementShape() {
+		String sender = "0189300" + System.nanoTime() % 100000;
+		String receiver = "0189400" + System.nanoTime() % 100000;
+		User user = userService.registerUser(sender, "secret1");
+		userService.registerUser(receiver, "secret1");
+		Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+		wallet.setBalance(10_000);
+		walletRepository.save(wallet);
+
+		for (int i = 0; i < 5; i++) {
+			transactionService.transferMoney(sender, receiver, 100);
+		}
+
+		List<Map<String, Object>> statements = (List<Map<String, Object>>) endpoint.statements(500).get("statements");
+		assertFalse(statements.isEmpty());
+		Map<String, Object> insert = statements.stream()
+				.filter(s -> ((String) s.get("sql")).startsWith("insert into transactions"))
+				.findFirst().orElseThrow();
+		assertTrue((long) insert.get("count") >= 5);
+		assertTrue((long) insert.get("rows") >= 5);
+		// Each transfer updates both wallets
+		Map<String, Object> walletUpdate = statements.stream()
+				.filter(s -> ((String) s.get("sql")).startsWith("update wallets set balance"))
+				.findFirst().orElseThrow();
+		assertTrue((long) walletUpdate.get("rows") >= 10);
+		for (Map<String, Object> statement : statements) {
+			// Registration phones never reach the stats, only placeholders
+			assertFalse(((String) statement.get("sql")).contains(sender), statement.get("sql").toString());
+		}
+		assertEquals(1, ((List<?>) endpoint.statements(1).get("statements")).size());
+	}
+
+	@Test
+	void onlyAdminsReachTheEndpoint() throws Exception {
+		String phone = "0189500" + System.nanoTime() % 100000;
+		userService.registerUser(phone, "secret1");
+		UserDetails customer = userService.loadUserByUsername(phone);
+		assertEquals(Set.of("ROLE_USER"), AuthorityUtils.authorityListToSet(customer.getAuthorities()));
+
+		mockMvc.perform(get("/actuator/sqlstats").with(user(customer))).andExpect(status().isForbidden());
+		mockMvc.perform(delete("/actuator/sqlstats").with(user(customer))).andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/metrics").with(user(customer))).andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/sqlstats")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/sqlstats").with(user("operator").roles("ADMIN"))).andExpect(status().isOk());
+		mockMvc.perform(delete("/actuator/sqlstats").with(user("operator").roles("ADMIN")))
+				.andExpect(status().is2xxSuccessful());
+	}
+}
@@ -0,0 +1,160 @@
+package com.seal.seal.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.User;
+import com.seal.seal.service.TransactionService;
+import com.seal.seal.service.UserService;
+import com.seal.seal.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionControllerTests {
+
+	// Minor units
+	private static final long INITIAL_BALANCE = 100_000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cborConverter;
+
+	@Test
+	void holdAndVoidChangeTheReceiversHistoryTag() throws Exception {
+		String sender = "0177000" + System.nanoTime() % 100000;
+		String receiver = "0177100" + System.nanoTime() % 100000;
+		fund(sender);
+		userService.registerUser(receiver, "secret1");
+
+		String emptyTag = etag(mockMvc.perform(history(receiver))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0)));
+		Transaction hold = transactionService.authorizeHold(sender, receiver, 1_000);
+
+		String pendingTag = etag(mockMvc.perform(history(receiver).header(HttpHeaders.IF_NONE_MATCH, emptyTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(hold.getId()))
+				.andExpect(jsonPath("$[0].status").value("PENDING")));
+		transactionService.voidHold(sender, hold.getId());
+
+		String voidedTag = etag(mockMvc.perform(history(receiver).header(HttpHeaders.IF_NONE_MATCH, pendingTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status").value("VOIDED")));
+		mockMvc.perform(history(receiver).header(HttpHeaders.IF_NONE_MATCH, voidedTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void historyIsEncodedAsCborWhenAsked() throws Exception {
+		String sender = "0177200" + System.nanoTime() % 100000;
+		String receiver = "0177300" + System.nanoTime() % 100000;
+		fund(sender);
+		userService.registerUser(receiver, "secret1");
+		Transaction transfer = transactionService.transferMoney(sender, receiver, 1_250);
+
+		byte[] body = mockMvc.perform(history(sender).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		JsonNode page = cborConverter.getObjectMapper().readTree(body);
+		assertEquals(1, page.size());
+		assertEquals(transfer.getId(), page.get(0).get("id").asLong());
+		assertEquals(0, new BigDecimal("12.50").compareTo(page.get(0).get("amount").decimalValue()));
+		assertEquals("SENT", page.get(0).get("type").asText());
+	}
+
+	@Test
+	void eachViewHasItsOwnTagThatChangesWithTheWallet() throws Exception {
+		String sender = "0177500" + System.nanoTime() % 100000;
+		String receiver = "0177600" + System.nanoTime() % 100000;
+		fund(sender);
+		userService.registerUser(receiver, "secret1");
+
+		String balance = etag(mockMvc.perform(get("/wallet/balance").with(user(receiver))).andExpect(status().isOk()));
+		String all = etag(mockMvc.perform(history(receiver)).andExpect(status().isOk()));
+		String latest = etag(mockMvc.perform(history(receiver).param("limit", "5")).andExpect(status().isOk()));
+		String received = etag(mockMvc.perform(get("/transactions/received").with(user(receiver)))
+				.andExpect(status().isOk()));
+		assertEquals(4, Set.of(balance, all, latest, received).size());
+
+		// Each tag only matches its own view
+		mockMvc.perform(history(receiver).header(HttpHeaders.IF_NONE_MATCH, all))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(history(receiver).param("limit", "5").header(HttpHeaders.IF_NONE_MATCH, latest))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(history(receiver).param("limit", "5").header(HttpHeaders.IF_NONE_MATCH, all))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/wallet/balance").with(user(receiver)).header(HttpHeaders.IF_NONE_MATCH, all))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/wallet/balance").with(user(receiver)).header(HttpHeaders.IF_NONE_MATCH, balance))
+				.andExpect(status().isNotModified());
+
+		// An incoming transfer changes every view of the receiver's wallet
+		transactionService.transferMoney(sender, receiver, 1_000);
+		mockMvc.perform(get("/wallet/balance").with(user(receiver)).header(HttpHeaders.IF_NONE_MATCH, balance))
+				.andExpect(status().isOk());
+		mockMvc.perform(history(receiver).header(HttpHeaders.IF_NONE_MATCH, all))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1));
+		mockMvc.perform(get("/transactions/received").with(user(receiver)).header(HttpHeaders.IF_NONE_MATCH, received))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void outOfRangeLimitIsRejectedAsAnInvalidRequest() throws Exception {
+		String phone = "0177400" + System.nanoTime() % 100000;
+		userService.registerUser(phone, "secret1");
+
+		for (String path : new String[] {"/transactions/history", "/transactions/sent", "/transactions/received"}) {
+			mockMvc.perform(get(path).param("limit", "0").with(user(phone)))
+					.andExpect(status().isBadRequest())
+					.andExpect(jsonPath("$.code").value("INVALID_REQUEST"));
+		}
+	}
+
+	private static MockHttpServletRequestBuilder history(String phone) {
+		return get("/transactions/history").with(user(phone));
+	}
+
+	private static String etag(ResultActions result) {
+		return result.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private User fund(String phone) {
+		User user = userService.registerUser(phone, "secret1");
+		walletService.updateBalance(walletService.findByUserId(user.getId()).getId(), INITIAL_BALANCE);
+		return user;
+	}
+}
@@ -0,0 +1,75 @@
+package com.seal.seal.exception;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Cost of one rejected transfer's exception, thrown from a request-deep call stack:
+// a fresh RuntimeException logged with its stack trace (the old path) against a
+// preallocated stackless SealException logged as one line. The timing runs with
+// -Pbenchmark and only reports.
+class SealExceptionBenchmarkTests {
+
+	private static final int ITERATIONS = 50_000;
+	private static final int STACK_DEPTH = 120;
+
+	private static long sink;
+
+	@Test
+	void preallocatedExceptionsAreStackless() {
+		assertEquals(0, InsufficientBalanceException.INSTANCE.getStackTrace().length);
+		assertEquals(0, new ResourceNotFoundException("x").getStackTrace().length);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void rejectedTransferException() {
+		Runnable legacy = () -> {
+			try {
+				throwAtDepth(STACK_DEPTH, true);
+			} catch (RuntimeException e) {
+				StringWriter trace = new StringWriter();
+				e.printStackTrace(new PrintWriter(trace));
+				sink += trace.getBuffer().length();
+			}
+		};
+		Runnable stackless = () -> {
+			try {
+				throwAtDepth(STACK_DEPTH, false);
+			} catch (SealException e) {
+				sink += e.getCode().length() + e.getMessage().length();
+			}
+		};
+
+		run(legacy);
+		run(stackless);
+		long legacyNanos = run(legacy);
+		long stacklessNanos = run(stackless);
+
+		System.out.printf("rejected-transfer exception: legacy %d ns/op (%d/s), stackless %d ns/op (%d/s)%n",
+				legacyNanos / ITERATIONS, ITERATIONS * 1_000_000_000L / legacyNanos,
+				stacklessNanos / ITERATIONS, ITERATIONS * 1_000_000_000L / stacklessNanos);
+	}
+
+	private static long run(Runnable rejection) {
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			rejection.run();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void throwAtDepth(int depth, boolean legacy) {
+		if (depth > 0) {
+			throwAtDepth(depth - 1, legacy);
+			return;
+		}
+		if (legacy) {
+			throw new RuntimeException("Insufficient balance");
+		}
+		throw InsufficientBalanceException.INSTANCE;
+	}
+}
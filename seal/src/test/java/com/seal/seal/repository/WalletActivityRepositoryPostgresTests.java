@@ -0,0 +1,53 @@
+package com.seal.seal.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The WalletActivityRepositoryTests cases on PostgreSQL, where the plan check looks for the
+// index-only scan under a LIMIT that history relies on in production. Runs only against a
+// throwaway database (the schema is created and dropped), e.g.
+//   SEAL_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/seal_test mvn test -Dtest=WalletActivityRepositoryPostgresTests
+@SpringBootTest(properties = {
+		"spring.datasource.url=${SEAL_TEST_POSTGRES_URL}",
+		"spring.datasource.driver-class-name=org.postgresql.Driver",
+		"spring.datasource.username=${SEAL_TEST_POSTGRES_USER:postgres}",
+		"spring.datasource.password=${SEAL_TEST_POSTGRES_PASSWORD:postgres}",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "SEAL_TEST_POSTGRES_URL", matches = ".+")
+class WalletActivityRepositoryPostgresTests extends WalletActivityRepositoryTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	@Test
+	void lastNIsAnIndexOnlyScanWithLimit() {
+		Long walletId = walletWithTransfers("0175500", "0175600");
+		// Statistics for the planner, and a visibility map so the scan needs no heap fetches
+		jdbcTemplate.execute("VACUUM ANALYZE wallet_activity");
+
+		String recent = plan(WalletActivityRepository.RECENT, Map.of("walletId", walletId, "limit", LIMIT));
+		String sent = plan(WalletActivityRepository.RECENT_BY_DIRECTION,
+				Map.of("walletId", walletId, "sent", true, "limit", LIMIT));
+		assertTrue(recent.contains("Index Only Scan using idx_wallet_activity_recent"), recent);
+		assertTrue(sent.contains("Index Only Scan using idx_wallet_activity_direction"), sent);
+		for (String plan : List.of(recent, sent)) {
+			// Stopped at the limit, in index order, without touching the heap
+			assertTrue(plan.startsWith("Limit "), plan);
+			assertTrue(plan.contains("rows=" + LIMIT + " loops=1"), plan);
+			assertFalse(plan.contains("Sort"), plan);
+			assertTrue(plan.contains("Heap Fetches: 0"), plan);
+		}
+	}
+}
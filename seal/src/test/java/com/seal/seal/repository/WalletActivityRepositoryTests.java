@@ -0,0 +1,127 @@
+package com.seal.seal.repository;
+
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.User;
+import com.seal.seal.service.TransactionService;
+import com.seal.seal.service.UserService;
+import com.seal.seal.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletActivityRepositoryTests {
+
+	private static final int TRANSFERS = 300;
+	static final int LIMIT = 20;
+	// Minor units
+	private static final long INITIAL_BALANCE = 10_000_000;
+	private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+	@Autowired
+	private WalletActivityRepository walletActivityRepository;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbc;
+
+	@Test
+	void lastNMatchesTheFullHistory() {
+		String alice = "0175000" + System.nanoTime() % 100000;
+		String bob = "0175100" + System.nanoTime() % 100000;
+		String carol = "0175200" + System.nanoTime() % 100000;
+		User aliceUser = fund(alice);
+		fund(bob);
+		fund(carol);
+		for (int i = 0; i < TRANSFERS; i++) {
+			switch (i % 3) {
+				case 0 -> transactionService.transferMoney(alice, bob, 100 + i);
+				case 1 -> transactionService.transferMoney(bob, alice, 100 + i);
+				default -> transactionService.transferMoney(carol, bob, 100 + i);
+			}
+		}
+		transactionService.authorizeHold(alice, carol, 1_000);
+
+		Long aliceWallet = walletService.findByUserId(aliceUser.getId()).getId();
+		List<Transaction> history = transactionService.getUserTransactions(aliceUser.getId());
+		List<Transaction> sent = transactionService.getSentTransactions(aliceUser.getId());
+		List<Transaction> received = transactionService.getReceivedTransactions(aliceUser.getId());
+		// Two thirds of the transfers and the hold
+		assertEquals(TRANSFERS * 2 / 3 + 1, history.size());
+		assertEquals(TRANSFERS / 3 + 1, sent.size());
+		assertEquals(TRANSFERS / 3, received.size());
+		assertEquals(history.size(), walletActivityRepository.findRecentTransactionIds(aliceWallet, Integer.MAX_VALUE).size());
+		for (int i = 1; i < history.size(); i++) {
+			assertTrue(!history.get(i).getCreatedAt().isAfter(history.get(i - 1).getCreatedAt()));
+		}
+
+		assertIds(history.subList(0, LIMIT), transactionService.getUserTransactions(aliceUser.getId(), LIMIT));
+		assertIds(sent.subList(0, LIMIT), transactionService.getSentTransactions(aliceUser.getId(), LIMIT));
+		assertIds(received.subList(0, LIMIT), transactionService.getReceivedTransactions(aliceUser.getId(), LIMIT));
+		assertIds(history, transactionService.getUserTransactions(aliceUser.getId(), 10_000));
+	}
+
+	@Test
+	void lastNIsAnIndexOnlyScanWithLimit() {
+		Long walletId = walletWithTransfers("0175300", "0175400");
+
+		String recent = plan(WalletActivityRepository.RECENT, Map.of("walletId", walletId, "limit", LIMIT));
+		String sent = plan(WalletActivityRepository.RECENT_BY_DIRECTION,
+				Map.of("walletId", walletId, "sent", true, "limit", LIMIT));
+		// The wallet's index range, read in ORDER BY order, with no sort and stopped at the limit
+		assertTrue(recent.contains("IDX_WALLET_ACTIVITY_RECENT: WALLET_ID ="), recent);
+		assertTrue(sent.contains("IDX_WALLET_ACTIVITY_DIRECTION: WALLET_ID ="), sent);
+		for (String plan : List.of(recent, sent)) {
+			assertTrue(plan.contains("/* index sorted */"), plan);
+			Matcher scanned = SCAN_COUNT.matcher(plan);
+			assertTrue(scanned.find(), plan);
+			assertTrue(Integer.parseInt(scanned.group(1)) <= LIMIT + 1, plan);
+		}
+	}
+
+	// The sender's wallet after TRANSFERS transfers
+	Long walletWithTransfers(String senderPrefix, String receiverPrefix) {
+		String sender = senderPrefix + System.nanoTime() % 100000;
+		String receiver = receiverPrefix + System.nanoTime() % 100000;
+		User senderUser = fund(sender);
+		fund(receiver);
+		for (int i = 0; i < TRANSFERS; i++) {
+			transactionService.transferMoney(sender, receiver, 100);
+		}
+		return walletService.findByUserId(senderUser.getId()).getId();
+	}
+
+	// One line in H2, one row per plan node in PostgreSQL
+	String plan(String sql, Map<String, ?> parameters) {
+		return String.join(" ", jdbc.queryForList("EXPLAIN ANALYZE " + sql, parameters, String.class))
+				.replaceAll("\\s+", " ");
+	}
+
+	private User fund(String phone) {
+		User user = userService.registerUser(phone, "secret1");
+		walletService.updateBalance(walletService.findByUserId(user.getId()).getId(), INITIAL_BALANCE);
+		return user;
+	}
+
+	private static void assertIds(List<Transaction> expected, List<Transaction> actual) {
+		assertEquals(expected.stream().map(Transaction::getId).toList(), actual.stream().map(Transaction::getId).toList());
+	}
+}
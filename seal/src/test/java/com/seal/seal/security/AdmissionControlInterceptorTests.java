@@ -0,0 +1,83 @@
+package com.seal.seal.security;
+
+import com.seal.seal.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"seal.admission.transfer.initial-limit=5",
+		"seal.admission.transfer.min-limit=5",
+		"seal.admission.shed-utilization=0.8"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionControlInterceptorTests {
+
+	@Autowired
+	private AdmissionControlInterceptor interceptor;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void historyIsShedWhileTransfersAreNearTheirLimit() throws Exception {
+		String phone = "0184000" + System.nanoTime() % 100000;
+		userService.registerUser(phone, "secret1");
+
+		// 3 of 5 transfer slots in use: history is still served
+		List<MockHttpServletRequest> transfers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			transfers.add(startTransfer());
+		}
+		mockMvc.perform(get("/transactions/history").with(user(phone))).andExpect(status().isOk());
+
+		// 4 of 5 reaches the 0.8 threshold: every history endpoint is shed
+		transfers.add(startTransfer());
+		for (String path : AdmissionControlInterceptor.HISTORY_PATHS) {
+			mockMvc.perform(get(path).with(user(phone)))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+		}
+
+		// Transfers keep their last slot, then are rejected too
+		transfers.add(startTransfer());
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(transferRequest(), rejected, null));
+		assertEquals(503, rejected.getStatus());
+
+		for (MockHttpServletRequest transfer : transfers) {
+			interceptor.afterCompletion(transfer, new MockHttpServletResponse(), null, null);
+		}
+		mockMvc.perform(get("/transactions/history").with(user(phone))).andExpect(status().isOk());
+	}
+
+	private MockHttpServletRequest startTransfer() throws Exception {
+		MockHttpServletRequest request = transferRequest();
+		assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+		return request;
+	}
+
+	private static MockHttpServletRequest transferRequest() {
+		return new MockHttpServletRequest("POST", AdmissionControlInterceptor.TRANSFER_PATH);
+	}
+}
@@ -0,0 +1,79 @@
+package com.seal.seal.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Small buckets that refill one token a minute, so nothing refills during a test
+@SpringBootTest(properties = {
+		"seal.rate-limit.auth.capacity=3",
+		"seal.rate-limit.auth.refill-millis=60000",
+		"seal.rate-limit.default.capacity=2",
+		"seal.rate-limit.default.refill-millis=60000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void anonymousCallsAreLimitedPerClientIp() throws Exception {
+		String phone = "0189000" + System.nanoTime() % 100000;
+		for (int i = 0; i < 3; i++) {
+			assertAdmitted(login(phone).with(from("10.0.0.1")));
+		}
+
+		mockMvc.perform(login(phone).with(from("10.0.0.1")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+		// Another client is not affected, even for the same phone
+		assertAdmitted(login(phone).with(from("10.0.0.2")));
+	}
+
+	@Test
+	void authenticatedCallsAreLimitedPerPhone() throws Exception {
+		String phone = "0189100" + System.nanoTime() % 100000;
+		String other = "0189200" + System.nanoTime() % 100000;
+		assertAdmitted(get("/wallet/balance").with(user(phone)).with(from("10.0.1.1")));
+		assertAdmitted(get("/wallet/balance").with(user(phone)).with(from("10.0.1.2")));
+
+		// The bucket follows the phone across addresses
+		mockMvc.perform(get("/wallet/balance").with(user(phone)).with(from("10.0.1.3")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+		assertAdmitted(get("/wallet/balance").with(user(other)).with(from("10.0.1.1")));
+	}
+
+	private static MockHttpServletRequestBuilder login(String phone) {
+		return post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"phone\":\"" + phone + "\",\"password\":\"secret1\"}");
+	}
+
+	private static RequestPostProcessor from(String address) {
+		return request -> {
+			request.setRemoteAddr(address);
+			return request;
+		};
+	}
+
+	// Whatever the endpoint answers, the filter let it through
+	private void assertAdmitted(MockHttpServletRequestBuilder request) throws Exception {
+		assertNotEquals(429, mockMvc.perform(request).andReturn().getResponse().getStatus());
+	}
+}
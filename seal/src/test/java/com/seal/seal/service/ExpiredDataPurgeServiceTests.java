@@ -0,0 +1,76 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "seal.purge.batch-size=500")
+@ActiveProfiles("test")
+class ExpiredDataPurgeServiceTests {
+
+	private static final int ROWS = 20_000;
+
+	@Autowired
+	private ExpiredDataPurgeService purgeService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void purgesOnlyExpiredRowsInBatches() {
+		User user = userRepository.save(new User("0170000" + System.nanoTime() % 100000, "x"));
+		Timestamp past = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+		Timestamp future = Timestamp.valueOf(LocalDateTime.now().plusDays(1));
+
+		// Every other row is expired
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO refresh_tokens (token_hash, user_id, expires_at, revoked, generation, created_at) VALUES (?, ?, ?, FALSE, 0, ?)",
+				IntStream.range(0, ROWS).mapToObj(i -> new Object[] {
+						ByteBuffer.allocate(32).putLong(user.getId()).putInt(i).array(),
+						user.getId(), i % 2 == 0 ? past : future, past }).toList());
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO otps (user_id, otp_code, purpose, status, created_at, expires_at) VALUES (?, '123456', 1, 1, ?, ?)",
+				IntStream.range(0, ROWS).mapToObj(i -> new Object[] {
+						user.getId(), past, i % 2 == 0 ? past : future }).toList());
+
+		assertEquals(ROWS / 2, purgeService.purgeRefreshTokens());
+		assertEquals(ROWS / 2, purgeService.purgeOtps());
+
+		assertEquals(ROWS / 2, count("refresh_tokens", user.getId()));
+		assertEquals(ROWS / 2, count("otps", user.getId()));
+		assertEquals(0, purgeService.purgeRefreshTokens());
+	}
+
+	@Test
+	void purgesTokensFromSupersededGenerations() {
+		User user = userRepository.save(new User("0180000" + System.nanoTime() % 100000, "x"));
+		Timestamp future = Timestamp.valueOf(LocalDateTime.now().plusDays(1));
+		for (int i = 0; i < 10; i++) {
+			jdbcTemplate.update(
+					"INSERT INTO refresh_tokens (token_hash, user_id, expires_at, revoked, generation) VALUES (?, ?, ?, FALSE, 0)",
+					ByteBuffer.allocate(32).putLong(-user.getId()).putInt(i).array(), user.getId(), future);
+		}
+		jdbcTemplate.update("UPDATE users SET token_generation = token_generation + 1 WHERE id = ?", user.getId());
+
+		purgeService.purgeRefreshTokens();
+
+		assertEquals(0, count("refresh_tokens", user.getId()));
+	}
+
+	private long count(String table, Long userId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Long.class, userId);
+	}
+}
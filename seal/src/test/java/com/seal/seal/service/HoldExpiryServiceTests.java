@@ -0,0 +1,137 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.HoldNotPendingException;
+import com.seal.seal.repository.TransactionRepository;
+import com.seal.seal.repository.WalletRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "seal.transfer.hold.sweep.batch-size=50")
+@ActiveProfiles("test")
+class HoldExpiryServiceTests {
+
+	private static final int HOLDS = 500;
+	// Minor units
+	private static final long INITIAL_BALANCE = 1_000_000;
+	private static final long AMOUNT = 100;
+
+	@Autowired
+	private HoldExpiryService holdExpiryService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void holdsMoveFundsOnlyWhenCaptured() {
+		String payer = "0198000" + System.nanoTime() % 100000;
+		String payee = "0198100" + System.nanoTime() % 100000;
+		Wallet payerWallet = fund(userService.registerUser(payer, "secret1"));
+		Wallet payeeWallet = fund(userService.registerUser(payee, "secret1"));
+
+		Transaction captured = transactionService.authorizeHold(payer, payee, AMOUNT);
+		Transaction voided = transactionService.authorizeHold(payer, payee, AMOUNT);
+		assertEquals(TransactionStatus.PENDING, captured.getStatus());
+		assertEquals(INITIAL_BALANCE - 2 * AMOUNT, wallet(payerWallet).getBalance());
+		assertEquals(2 * AMOUNT, wallet(payerWallet).getHeldBalance());
+		assertEquals(INITIAL_BALANCE, wallet(payeeWallet).getBalance());
+
+		assertEquals(TransactionStatus.SUCCESS, transactionService.captureHold(payer, captured.getId()).getStatus());
+		assertEquals(TransactionStatus.VOIDED, transactionService.voidHold(payer, voided.getId()).getStatus());
+		assertThrows(HoldNotPendingException.class, () -> transactionService.voidHold(payer, captured.getId()));
+		assertThrows(HoldNotPendingException.class, () -> transactionService.captureHold(payer, voided.getId()));
+		// Only the sender can settle a hold
+		Transaction foreign = transactionService.authorizeHold(payer, payee, AMOUNT);
+		assertThrows(HoldNotPendingException.class, () -> transactionService.captureHold(payee, foreign.getId()));
+		transactionService.voidHold(payer, foreign.getId());
+
+		assertEquals(INITIAL_BALANCE - AMOUNT, wallet(payerWallet).getBalance());
+		assertEquals(0, wallet(payerWallet).getHeldBalance());
+		assertEquals(INITIAL_BALANCE + AMOUNT, wallet(payeeWallet).getBalance());
+	}
+
+	@Test
+	void sweeperReleasesExpiredHoldsInBatches() {
+		String payer = "0198200" + System.nanoTime() % 100000;
+		String payee = "0198300" + System.nanoTime() % 100000;
+		Wallet payerWallet = fund(userService.registerUser(payer, "secret1"));
+		fund(userService.registerUser(payee, "secret1"));
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < HOLDS; i++) {
+			ids.add(transactionService.authorizeHold(payer, payee, AMOUNT).getId());
+		}
+		Long live = transactionService.authorizeHold(payer, payee, AMOUNT).getId();
+		jdbcTemplate.update("UPDATE transactions SET hold_expires_at = DATEADD('MINUTE', -1, CURRENT_TIMESTAMP) " +
+				"WHERE id BETWEEN ? AND ?", ids.get(0), ids.get(HOLDS - 1));
+		assertEquals(INITIAL_BALANCE - (HOLDS + 1) * AMOUNT, wallet(payerWallet).getBalance());
+
+		assertEquals(HOLDS, holdExpiryService.releaseExpired());
+		assertEquals(INITIAL_BALANCE - AMOUNT, wallet(payerWallet).getBalance());
+		assertEquals(AMOUNT, wallet(payerWallet).getHeldBalance());
+		assertEquals(TransactionStatus.VOIDED, transactionRepository.findById(ids.get(0)).orElseThrow().getStatus());
+		assertEquals(TransactionStatus.PENDING, transactionRepository.findById(live).orElseThrow().getStatus());
+		// Expired means expired, even for a capture racing the sweep
+		assertThrows(HoldNotPendingException.class, () -> transactionService.captureHold(payer, ids.get(1)));
+		assertEquals(0, holdExpiryService.releaseExpired());
+	}
+
+	@Test
+	void settlingAHoldUpdatesOnlyItsCachedEntry() {
+		String payer = "0198400" + System.nanoTime() % 100000;
+		String payee = "0198500" + System.nanoTime() % 100000;
+		fund(userService.registerUser(payer, "secret1"));
+		fund(userService.registerUser(payee, "secret1"));
+		Long transfer = transactionService.transferMoney(payer, payee, AMOUNT).getId();
+		Long hold = transactionService.authorizeHold(payer, payee, AMOUNT).getId();
+		transactionRepository.findById(transfer);
+		transactionRepository.findById(hold);
+		Cache cache = entityManagerFactory.getCache();
+		assertTrue(cache.contains(Transaction.class, transfer));
+
+		transactionService.voidHold(payer, hold);
+
+		assertTrue(cache.contains(Transaction.class, transfer));
+		assertTrue(cache.contains(Transaction.class, hold));
+		assertEquals(TransactionStatus.VOIDED, transactionRepository.findById(hold).orElseThrow().getStatus());
+	}
+
+	private Wallet fund(User user) {
+		Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+		wallet.setBalance(INITIAL_BALANCE);
+		return walletRepository.save(wallet);
+	}
+
+	private Wallet wallet(Wallet wallet) {
+		return walletRepository.findById(wallet.getId()).orElseThrow();
+	}
+}
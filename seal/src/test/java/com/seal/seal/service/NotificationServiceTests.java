@@ -0,0 +1,110 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "seal.notifications.max-per-user=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotificationServiceTests {
+
+	private static final long WAIT_MS = 5_000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private NotificationService notificationService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Test
+	void streamsAreCappedPerUserAndReleasedOnClose() throws Exception {
+		String phone = "0182000" + System.nanoTime() % 100000;
+		String other = "0182100" + System.nanoTime() % 100000;
+		int before = notificationService.getSubscriberCount();
+
+		List<MvcResult> streams = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			streams.add(open(phone));
+		}
+		assertEquals(before + 3, notificationService.getSubscriberCount());
+		await(streams.get(0), ":connected");
+
+		mockMvc.perform(get("/notifications/stream").with(user(phone)))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+		// The cap is per user
+		streams.add(open(other));
+		assertEquals(before + 4, notificationService.getSubscriberCount());
+
+		for (MvcResult stream : streams) {
+			stream.getRequest().getAsyncContext().complete();
+		}
+		assertEquals(before, notificationService.getSubscriberCount());
+		// Closed streams give their slots back
+		open(phone).getRequest().getAsyncContext().complete();
+	}
+
+	@Test
+	void heartbeatAndTransfersReachEveryStreamOfTheUser() throws Exception {
+		User sender = userService.registerUser("0182200" + System.nanoTime() % 100000, "secret1");
+		walletService.updateBalance(walletService.findByUserId(sender.getId()).getId(), 10_000);
+		String receiver = "0182300" + System.nanoTime() % 100000;
+		userService.registerUser(receiver, "secret1");
+		List<MvcResult> streams = List.of(open(receiver), open(receiver));
+
+		notificationService.heartbeat();
+		for (MvcResult stream : streams) {
+			await(stream, ":heartbeat");
+		}
+
+		transactionService.transferMoney(sender.getPhone(), receiver, 1_000);
+		for (MvcResult stream : streams) {
+			await(stream, "event:transfer-received");
+			await(stream, "event:balance");
+		}
+		for (MvcResult stream : streams) {
+			stream.getRequest().getAsyncContext().complete();
+		}
+	}
+
+	private MvcResult open(String phone) throws Exception {
+		return mockMvc.perform(get("/notifications/stream").with(user(phone)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+	}
+
+	// Writes are dispatched on virtual threads
+	private static void await(MvcResult stream, String line) throws Exception {
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		while (!stream.getResponse().getContentAsString().contains(line)) {
+			assertTrue(System.currentTimeMillis() < deadline, "No '" + line + "' on the stream");
+			Thread.sleep(10);
+		}
+	}
+}
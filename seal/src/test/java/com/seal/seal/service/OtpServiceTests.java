@@ -0,0 +1,134 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Otp;
+import com.seal.seal.entity.OtpPurpose;
+import com.seal.seal.entity.OtpStatus;
+import com.seal.seal.exception.RateLimitExceededException;
+import com.seal.seal.repository.OtpRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OtpServiceTests {
+
+	// Concurrent verifies of one code; under the verify capacity of 5
+	private static final int VERIFIERS = 4;
+
+	@Autowired
+	private OtpService otpService;
+
+	@Autowired
+	private OtpRepository otpRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void issuedCodeVerifiesOnceForItsPurpose() {
+		String phone = register("0185000");
+		Otp otp = otpService.issue(phone, OtpPurpose.LOGIN).orElseThrow();
+		String wrong = otp.getOtpCode().equals("000000") ? "000001" : "000000";
+
+		assertTrue(otpService.verify(phone, OtpPurpose.TRANSACTION, otp.getOtpCode()).isEmpty());
+		assertTrue(otpService.verify(phone, OtpPurpose.LOGIN, wrong).isEmpty());
+		assertEquals(otp.getId(), otpService.verify(phone, OtpPurpose.LOGIN, otp.getOtpCode()).orElseThrow().getId());
+		assertEquals(OtpStatus.VERIFIED, otpRepository.findById(otp.getId()).orElseThrow().getStatus());
+		assertTrue(otpService.verify(phone, OtpPurpose.LOGIN, otp.getOtpCode()).isEmpty());
+	}
+
+	@Test
+	void unknownPhoneGetsNoCode() {
+		assertTrue(otpService.issue("0185100" + System.nanoTime() % 100000, OtpPurpose.LOGIN).isEmpty());
+	}
+
+	@Test
+	void concurrentVerifiesConsumeTheCodeOnce() throws Exception {
+		String phone = register("0185200");
+		Otp otp = otpService.issue(phone, OtpPurpose.LOGIN).orElseThrow();
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(VERIFIERS);
+		List<Future<Optional<Otp>>> futures = new ArrayList<>();
+		for (int i = 0; i < VERIFIERS; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return otpService.verify(phone, OtpPurpose.LOGIN, otp.getOtpCode());
+			}));
+		}
+		start.countDown();
+		int verified = 0;
+		for (Future<Optional<Otp>> future : futures) {
+			verified += future.get().isPresent() ? 1 : 0;
+		}
+		executor.shutdown();
+
+		assertEquals(1, verified);
+	}
+
+	@Test
+	void expiredCodeIsRejectedAndMarked() {
+		String phone = register("0185300");
+		Otp otp = otpService.issue(phone, OtpPurpose.LOGIN).orElseThrow();
+		jdbcTemplate.update("UPDATE otps SET expires_at = ? WHERE id = ?",
+				Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), otp.getId());
+
+		assertTrue(otpService.verify(phone, OtpPurpose.LOGIN, otp.getOtpCode()).isEmpty());
+		assertEquals(OtpStatus.EXPIRED, otpRepository.findById(otp.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void verifyAttemptsAreRateLimitedPerPhone() {
+		String phone = register("0185400");
+		Otp otp = otpService.issue(phone, OtpPurpose.LOGIN).orElseThrow();
+		String wrong = otp.getOtpCode().equals("000000") ? "000001" : "000000";
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(otpService.verify(phone, OtpPurpose.LOGIN, wrong).isEmpty());
+		}
+		// Out of attempts: even the right code is refused until the bucket refills
+		RateLimitExceededException limited = assertThrows(RateLimitExceededException.class,
+				() -> otpService.verify(phone, OtpPurpose.LOGIN, otp.getOtpCode()));
+		assertTrue(limited.getRetryAfterSeconds() >= 1);
+		assertEquals(OtpStatus.PENDING, otpRepository.findById(otp.getId()).orElseThrow().getStatus());
+
+		// Other phones have their own bucket
+		String other = register("0185500");
+		otpService.verify(other, OtpPurpose.LOGIN, wrong);
+	}
+
+	@Test
+	void issuingIsRateLimitedPerPhoneAndPurpose() {
+		String phone = register("0185600");
+		for (int i = 0; i < 3; i++) {
+			otpService.issue(phone, OtpPurpose.LOGIN).orElseThrow();
+		}
+		assertThrows(RateLimitExceededException.class, () -> otpService.issue(phone, OtpPurpose.LOGIN));
+		otpService.issue(phone, OtpPurpose.TRANSACTION).orElseThrow();
+	}
+
+	private String register(String prefix) {
+		String phone = prefix + System.nanoTime() % 100000;
+		userService.registerUser(phone, "secret1");
+		return phone;
+	}
+}
@@ -0,0 +1,74 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.RefreshToken;
+import com.seal.seal.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTests {
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void rotationReplacesTheTokenAndRejectsReuse() {
+		User user = userService.registerUser("0186000" + System.nanoTime() % 100000, "secret1");
+		String first = refreshTokenService.createRefreshToken(user).getToken();
+
+		RefreshToken rotated = refreshTokenService.rotate(first);
+		assertNotEquals(first, rotated.getToken());
+		assertEquals(rotated.getId(), refreshTokenService.findByToken(rotated.getToken()).orElseThrow().getId());
+		assertTrue(refreshTokenService.findByToken(first).isEmpty());
+
+		// A replayed token no longer matches any row
+		RuntimeException reuse = assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(first));
+		assertEquals("Invalid refresh token", reuse.getMessage());
+		refreshTokenService.rotate(rotated.getToken());
+	}
+
+	@Test
+	void revocationRejectsEveryOutstandingToken() {
+		User user = userService.registerUser("0186100" + System.nanoTime() % 100000, "secret1");
+		String first = refreshTokenService.createRefreshToken(user).getToken();
+		String second = refreshTokenService.rotate(refreshTokenService.createRefreshToken(user).getToken()).getToken();
+
+		refreshTokenService.revokeUserTokens(user.getId());
+
+		for (String token : new String[] {first, second}) {
+			RuntimeException revoked = assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(token));
+			assertEquals("Refresh token has been revoked", revoked.getMessage());
+		}
+		// Logging in again issues tokens of the new generation
+		refreshTokenService.rotate(refreshTokenService.createRefreshToken(user).getToken());
+	}
+
+	@Test
+	void lookupDuringRevocationDoesNotCacheTheOldGeneration() {
+		User user = userService.registerUser("0186200" + System.nanoTime() % 100000, "secret1");
+
+		transactionTemplate.executeWithoutResult(status -> {
+			refreshTokenService.revokeUserTokens(user.getId());
+			// Another request reads the generation before the revocation commits
+			CompletableFuture.runAsync(() -> refreshTokenService.createRefreshToken(user)).join();
+		});
+
+		refreshTokenService.rotate(refreshTokenService.createRefreshToken(user).getToken());
+	}
+}
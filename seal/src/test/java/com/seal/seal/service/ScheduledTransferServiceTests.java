@@ -0,0 +1,172 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.ScheduleFrequency;
+import com.seal.seal.entity.ScheduledTransfer;
+import com.seal.seal.entity.ScheduledTransferStatus;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.repository.ScheduledTransferRepository;
+import com.seal.seal.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "seal.scheduled-transfers.batch-size=50")
+@ActiveProfiles("test")
+class ScheduledTransferServiceTests {
+
+	private static final int SENDERS = 20;
+	private static final int RECEIVERS = 5;
+	private static final int PER_SENDER = 100;
+	// Stands in for two nodes polling the same table
+	private static final int WORKERS = 2;
+	// Minor units
+	private static final long INITIAL_BALANCE = 1_000_000;
+	private static final long AMOUNT = 100;
+
+	@Autowired
+	private ScheduledTransferService scheduledTransferService;
+
+	@Autowired
+	private ScheduledTransferRepository scheduledTransferRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentSchedulersRunEveryDueTransferOnce() throws Exception {
+		long base = System.nanoTime() % 100000;
+		List<Wallet> senders = wallets("0195", base, SENDERS, INITIAL_BALANCE);
+		List<Wallet> receivers = wallets("0196", base, RECEIVERS, 0);
+
+		LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < SENDERS * PER_SENDER; i++) {
+			rows.add(new Object[] { senders.get(i % SENDERS).getId(), receivers.get(i % RECEIVERS).getId(),
+					BigDecimal.valueOf(AMOUNT, 2), Timestamp.valueOf(due), Timestamp.valueOf(due) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO scheduled_transfers (from_wallet, to_wallet, amount, frequency, status, " +
+				"first_run_at, next_run_at, run_count, version) VALUES (?, ?, ?, 1, 1, ?, ?, 0, 0)", rows);
+		Long firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM scheduled_transfers WHERE from_wallet = ?",
+				Long.class, senders.get(0).getId());
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(WORKERS);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int w = 0; w < WORKERS; w++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				int executed = 0;
+				int polled;
+				while ((polled = scheduledTransferService.processDue()) > 0) {
+					executed += polled;
+				}
+				return executed;
+			}));
+		}
+		start.countDown();
+		int executed = 0;
+		for (Future<Integer> future : futures) {
+			executed += future.get();
+		}
+		executor.shutdown();
+		// Rows released after a wallet conflict late in the other worker's last poll
+		executed += scheduledTransferService.processDue();
+
+		int total = SENDERS * PER_SENDER;
+		assertEquals(total, executed);
+		assertEquals(total, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scheduled_transfers " +
+				"WHERE id >= ? AND status = 2 AND run_count = 1", Integer.class, firstId));
+		assertEquals(total, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT last_transaction_id) " +
+				"FROM scheduled_transfers WHERE id >= ?", Integer.class, firstId));
+		for (Wallet sender : senders) {
+			assertEquals(INITIAL_BALANCE - PER_SENDER * AMOUNT, balance(sender));
+		}
+		for (Wallet receiver : receivers) {
+			assertEquals((long) total / RECEIVERS * AMOUNT, balance(receiver));
+		}
+	}
+
+	@Test
+	void rejectedRunsFailOneOffAndAdvanceRecurring() {
+		long base = System.nanoTime() % 100000;
+		User poor = userService.registerUser(String.format("0197%05d00", base), "secret1");
+		User payee = userService.registerUser(String.format("0197%05d01", base), "secret1");
+		LocalDateTime due = LocalDateTime.now().withNano(0).minusHours(1);
+
+		ScheduledTransfer once = scheduledTransferService.create(poor.getPhone(), payee.getPhone(), AMOUNT,
+				ScheduleFrequency.ONCE, due);
+		ScheduledTransfer daily = scheduledTransferService.create(poor.getPhone(), payee.getPhone(), AMOUNT,
+				ScheduleFrequency.DAILY, due);
+		ScheduledTransfer cancelled = scheduledTransferService.create(poor.getPhone(), payee.getPhone(), AMOUNT,
+				ScheduleFrequency.WEEKLY, due);
+		scheduledTransferService.cancel(poor.getPhone(), cancelled.getId());
+
+		scheduledTransferService.processDue();
+
+		ScheduledTransfer failedOnce = scheduledTransferRepository.findById(once.getId()).orElseThrow();
+		assertEquals(ScheduledTransferStatus.FAILED, failedOnce.getStatus());
+		assertEquals(TransactionStatus.FAILED, failedOnce.getLastOutcome());
+		assertEquals("INSUFFICIENT_BALANCE", failedOnce.getLastError());
+
+		ScheduledTransfer advanced = scheduledTransferRepository.findById(daily.getId()).orElseThrow();
+		assertEquals(ScheduledTransferStatus.ACTIVE, advanced.getStatus());
+		assertEquals(1, advanced.getRunCount());
+		assertEquals(due.plusDays(1), advanced.getNextRunAt());
+		assertTrue(advanced.getLeaseOwner() == null);
+
+		assertEquals(0, scheduledTransferRepository.findById(cancelled.getId()).orElseThrow().getRunCount());
+	}
+
+	@Test
+	void monthlyRunsStayOnTheAnchorDay() {
+		LocalDateTime anchor = LocalDateTime.of(2026, 1, 31, 10, 0);
+		ScheduledTransfer monthly = new ScheduledTransfer(null, null, AMOUNT, ScheduleFrequency.MONTHLY, anchor);
+
+		monthly.recordRun(anchor.plusSeconds(5), TransactionStatus.SUCCESS, null, null);
+		assertEquals(LocalDateTime.of(2026, 2, 28, 10, 0), monthly.getNextRunAt());
+		monthly.recordRun(monthly.getNextRunAt().plusSeconds(5), TransactionStatus.SUCCESS, null, null);
+		assertEquals(LocalDateTime.of(2026, 3, 31, 10, 0), monthly.getNextRunAt());
+
+		// Down from April to mid-July: one catch-up run, then back on the 31st
+		monthly.recordRun(LocalDateTime.of(2026, 7, 15, 9, 0), TransactionStatus.SUCCESS, null, null);
+		assertEquals(LocalDateTime.of(2026, 7, 31, 10, 0), monthly.getNextRunAt());
+		assertEquals(3, monthly.getRunCount());
+	}
+
+	private List<Wallet> wallets(String prefix, long base, int count, long balance) {
+		List<Wallet> wallets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			User user = userService.registerUser(String.format("%s%05d%02d", prefix, base, i), "secret1");
+			Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+			wallet.setBalance(balance);
+			wallets.add(walletRepository.save(wallet));
+		}
+		return wallets;
+	}
+
+	private long balance(Wallet wallet) {
+		return walletRepository.findById(wallet.getId()).orElseThrow().getBalance();
+	}
+}
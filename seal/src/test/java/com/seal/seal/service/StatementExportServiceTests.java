@@ -0,0 +1,89 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatementExportServiceTests {
+
+	// Minor units
+	private static final long INITIAL_BALANCE = 100_000;
+
+	@Autowired
+	private StatementExportService statementExportService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Test
+	void statementHasTheUsersTransactionsOnlyInDateOrder() throws Exception {
+		String alice = "0178000" + System.nanoTime() % 100000;
+		String bob = "0178100" + System.nanoTime() % 100000;
+		String carol = "0178200" + System.nanoTime() % 100000;
+		User aliceUser = fund(alice);
+		fund(bob);
+		fund(carol);
+
+		List<String> expected = new ArrayList<>();
+		expected.add(line(transactionService.transferMoney(alice, bob, 150).getId(), alice, bob, "1.50", "SENT"));
+		transactionService.transferMoney(bob, carol, 300);
+		expected.add(line(transactionService.transferMoney(carol, alice, 200).getId(), carol, alice, "2.00", "RECEIVED"));
+		expected.add(line(transactionService.transferMoney(alice, carol, 1_000).getId(), alice, carol, "10.00", "SENT"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = statementExportService.export(aliceUser.getId(), LocalDateTime.now().minusDays(1),
+				LocalDateTime.now().plusDays(1), StatementExportService.FORMAT_CSV, out);
+
+		assertEquals(3, rows);
+		String[] lines = out.toString().split("\n");
+		assertEquals("id,from_phone,to_phone,amount,type,status,created_at", lines[0]);
+		List<String> actual = new ArrayList<>();
+		for (int i = 1; i < lines.length; i++) {
+			// Without the timestamp
+			actual.add(lines[i].substring(0, lines[i].lastIndexOf(',')));
+		}
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void statementOfAnEmptyRangeHasOnlyTheHeader() throws Exception {
+		String alice = "0178300" + System.nanoTime() % 100000;
+		String bob = "0178400" + System.nanoTime() % 100000;
+		User aliceUser = fund(alice);
+		fund(bob);
+		transactionService.transferMoney(alice, bob, 100);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = statementExportService.export(aliceUser.getId(), LocalDateTime.now().minusDays(3),
+				LocalDateTime.now().minusDays(2), StatementExportService.FORMAT_CSV, out);
+
+		assertEquals(0, rows);
+		assertEquals("id,from_phone,to_phone,amount,type,status,created_at\n", out.toString());
+	}
+
+	private static String line(Long id, String from, String to, String amount, String type) {
+		return id + "," + from + "," + to + "," + amount + "," + type + ",SUCCESS";
+	}
+
+	private User fund(String phone) {
+		User user = userService.registerUser(phone, "secret1");
+		walletService.updateBalance(walletService.findByUserId(user.getId()).getId(), INITIAL_BALANCE);
+		return user;
+	}
+}
@@ -0,0 +1,128 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.Transaction;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"seal.archive.batch-size=64", "seal.archive.block-bytes=4096"})
+@ActiveProfiles("test")
+class TransactionArchiveServiceTests {
+
+	private static final int OLD = 250;
+	private static final int RECENT = 50;
+	// Minor units
+	private static final long INITIAL_BALANCE = 10_000_000;
+
+	@Autowired
+	private TransactionArchiveService archiveService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private StatementExportService statementExportService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void oldTransactionsMoveToTheArchiveAndStayInHistory() throws Exception {
+		String alice = "0176000" + System.nanoTime() % 100000;
+		String bob = "0176100" + System.nanoTime() % 100000;
+		User aliceUser = fund(alice);
+		User bobUser = fund(bob);
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < OLD + RECENT; i++) {
+			// Every third transfer goes the other way
+			Transaction transfer = i % 3 == 0
+					? transactionService.transferMoney(bob, alice, 100 + i)
+					: transactionService.transferMoney(alice, bob, 100 + i);
+			ids.add(transfer.getId());
+		}
+		// The first OLD transfers happened two years ago, a minute apart, as did a hold
+		// that is still pending and so stays put
+		LocalDateTime start = LocalDateTime.now().minusYears(2);
+		for (int i = 0; i < OLD; i++) {
+			backdate(ids.get(i), start.plusMinutes(i));
+		}
+		Transaction hold = transactionService.authorizeHold(alice, bob, 1_000);
+		backdate(hold.getId(), start.minusMinutes(1));
+
+		List<Transaction> history = transactionService.getUserTransactions(aliceUser.getId());
+		List<Transaction> sent = transactionService.getSentTransactions(aliceUser.getId());
+		List<Transaction> received = transactionService.getReceivedTransactions(bobUser.getId());
+		String statement = export(aliceUser.getId());
+
+		assertEquals(OLD, archiveService.archiveOlderThan(LocalDateTime.now().minusDays(365)));
+		assertEquals(0, archiveService.archiveOlderThan(LocalDateTime.now().minusDays(365)));
+		assertEquals(RECENT + 1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM transactions WHERE id BETWEEN ? AND ?", Integer.class, ids.get(0), hold.getId()));
+		assertEquals(TransactionStatus.PENDING.getCode(), jdbcTemplate.queryForObject(
+				"SELECT status FROM transactions WHERE id = ?", Short.class, hold.getId()));
+
+		assertSame(history, transactionService.getUserTransactions(aliceUser.getId()));
+		assertSame(sent, transactionService.getSentTransactions(aliceUser.getId()));
+		assertSame(received, transactionService.getReceivedTransactions(bobUser.getId()));
+		// The last 20 come from the database alone; the last 100 reach into the archive
+		assertSame(history.subList(0, 20), transactionService.getUserTransactions(aliceUser.getId(), 20));
+		assertSame(history.subList(0, 100), transactionService.getUserTransactions(aliceUser.getId(), 100));
+		assertEquals(statement, export(aliceUser.getId()));
+		assertTrue(statement.split("\n").length > OLD, "statement covers the archived rows");
+	}
+
+	// History is ordered by the copy of created_at in wallet_activity, so both move
+	private void backdate(Long transactionId, LocalDateTime createdAt) {
+		jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), transactionId);
+		jdbcTemplate.update("UPDATE wallet_activity SET created_at = ? WHERE transaction_id = ?", Timestamp.valueOf(createdAt), transactionId);
+	}
+
+	private User fund(String phone) {
+		User user = userService.registerUser(phone, "secret1");
+		walletService.updateBalance(walletService.findByUserId(user.getId()).getId(), INITIAL_BALANCE);
+		return user;
+	}
+
+	private String export(Long userId) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		statementExportService.export(userId, LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.now().plusDays(1),
+				StatementExportService.FORMAT_CSV, out);
+		return out.toString();
+	}
+
+	// Same rows in the same order, down to what the history endpoint shows
+	private static void assertSame(List<Transaction> expected, List<Transaction> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Transaction e = expected.get(i);
+			Transaction a = actual.get(i);
+			assertEquals(e.getId(), a.getId());
+			assertEquals(e.getFromPhone(), a.getFromPhone());
+			assertEquals(e.getToPhone(), a.getToPhone());
+			assertEquals(e.getAmount(), a.getAmount());
+			assertEquals(e.getType(), a.getType());
+			assertEquals(e.getStatus(), a.getStatus());
+			assertEquals(e.getCreatedAt(), a.getCreatedAt());
+			assertEquals(e.getFromWallet().getUser().getId(), a.getFromWallet().getUser().getId());
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.InsufficientBalanceException;
+import com.seal.seal.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "seal.transfer.retry.max-attempts=10")
+@ActiveProfiles("test")
+class TransactionServiceTests {
+
+	private static final int THREADS = 8;
+	private static final int TRANSFERS_PER_THREAD = 25;
+	// Minor units
+	private static final long INITIAL_BALANCE = 100_000;
+	private static final long AMOUNT = 100;
+	private static final int REJECTIONS = 2_000;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Test
+	void concurrentTransfersLoseNoUpdates() throws Exception {
+		String alice = "0190000" + System.nanoTime() % 100000;
+		String bob = "0191000" + System.nanoTime() % 100000;
+		User aliceUser = userService.registerUser(alice, "secret1");
+		User bobUser = userService.registerUser(bob, "secret1");
+		setBalance(aliceUser.getId(), INITIAL_BALANCE);
+		setBalance(bobUser.getId(), INITIAL_BALANCE);
+
+		// Half the threads send alice -> bob, half bob -> alice, all hitting the same two rows
+		AtomicInteger aliceToBob = new AtomicInteger();
+		AtomicInteger bobToAlice = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			boolean fromAlice = t % 2 == 0;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+					try {
+						if (fromAlice) {
+							transactionService.transferMoney(alice, bob, AMOUNT);
+							aliceToBob.incrementAndGet();
+						} else {
+							transactionService.transferMoney(bob, alice, AMOUNT);
+							bobToAlice.incrementAndGet();
+						}
+					} catch (RuntimeException e) {
+						// Retries exhausted; the transfer must have left no trace
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		long aliceBalance = walletRepository.findByUserId(aliceUser.getId()).orElseThrow().getBalance();
+		long bobBalance = walletRepository.findByUserId(bobUser.getId()).orElseThrow().getBalance();
+		long net = (bobToAlice.get() - aliceToBob.get()) * AMOUNT;
+		assertTrue(aliceToBob.get() + bobToAlice.get() > 0);
+		assertEquals(INITIAL_BALANCE + net, aliceBalance);
+		assertEquals(INITIAL_BALANCE - net, bobBalance);
+	}
+
+	@Test
+	void rejectedTransfersAreStackless() {
+		String poor = "0192000" + System.nanoTime() % 100000;
+		String rich = "0193000" + System.nanoTime() % 100000;
+		userService.registerUser(poor, "secret1");
+		userService.registerUser(rich, "secret1");
+
+		InsufficientBalanceException rejection = assertThrows(InsufficientBalanceException.class,
+				() -> transactionService.transferMoney(poor, rich, AMOUNT));
+		assertEquals(0, rejection.getStackTrace().length);
+
+		int rejected = 0;
+		for (int i = 0; i < REJECTIONS; i++) {
+			try {
+				transactionService.transferMoney(poor, rich, AMOUNT);
+			} catch (InsufficientBalanceException e) {
+				rejected++;
+			}
+		}
+		assertEquals(REJECTIONS, rejected);
+	}
+
+	private void setBalance(Long userId, long balance) {
+		Wallet wallet = walletRepository.findByUserId(userId).orElseThrow();
+		wallet.setBalance(balance);
+		walletRepository.save(wallet);
+	}
+}
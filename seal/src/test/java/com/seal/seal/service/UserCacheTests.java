@@ -0,0 +1,107 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.UserStatus;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.InactiveWalletException;
+import com.seal.seal.repository.UserRepository;
+import com.seal.seal.repository.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCacheTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void warmPhoneLookupSkipsTheDatabase() {
+		String phone = "0188000" + System.nanoTime() % 100000;
+		String receiver = "0188050" + System.nanoTime() % 100000;
+		fund(userService.registerUser(phone, "secret1"));
+		userService.registerUser(receiver, "secret1");
+		userRepository.findByPhone(phone).orElseThrow();
+		// Native DML in the transfer path must not wipe the user region
+		transactionService.transferMoney(phone, receiver, 100);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long loads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+		long hits = statistics.getNaturalIdCacheHitCount();
+		long naturalIdQueries = statistics.getNaturalIdQueryExecutionCount();
+		assertEquals(phone, userRepository.findByPhone(phone).orElseThrow().getPhone());
+
+		assertEquals(loads, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+		assertEquals(naturalIdQueries, statistics.getNaturalIdQueryExecutionCount());
+		assertTrue(statistics.getNaturalIdCacheHitCount() > hits);
+		assertFalse(meterRegistry.find("hibernate.second.level.cache.requests").meters().isEmpty());
+	}
+
+	@Test
+	void blockingAUserIsSeenByTheNextTransfer() {
+		String sender = "0188100" + System.nanoTime() % 100000;
+		String receiver = "0188200" + System.nanoTime() % 100000;
+		fund(userService.registerUser(sender, "secret1"));
+		userService.registerUser(receiver, "secret1");
+		// Both users now cached as ACTIVE
+		transactionService.transferMoney(sender, receiver, 100);
+
+		userService.updateStatus(sender, UserStatus.BLOCKED);
+
+		assertEquals(UserStatus.BLOCKED, userService.findByPhone(sender).getStatus());
+		assertThrows(InactiveWalletException.class, () -> transactionService.transferMoney(sender, receiver, 100));
+		userService.updateStatus(receiver, UserStatus.BLOCKED);
+		assertThrows(InactiveWalletException.class, () -> transactionService.transferMoney(receiver, sender, 100));
+
+		userService.updateStatus(sender, UserStatus.ACTIVE);
+		userService.updateStatus(receiver, UserStatus.ACTIVE);
+		transactionService.transferMoney(sender, receiver, 100);
+	}
+
+	@Test
+	void logoutUpdatesTheCachedTokenGeneration() {
+		String phone = "0188300" + System.nanoTime() % 100000;
+		User user = userService.registerUser(phone, "secret1");
+		int generation = userService.findByPhone(phone).getTokenGeneration();
+
+		refreshTokenService.revokeUserTokens(user.getId());
+
+		assertEquals(generation + 1, userService.findByPhone(phone).getTokenGeneration());
+	}
+
+	private void fund(User user) {
+		Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+		wallet.setBalance(10_000);
+		walletRepository.save(wallet);
+	}
+}
@@ -0,0 +1,22 @@
+package com.seal.seal.service;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// The UserServiceTests cases on the single-statement registration path, which needs
+// PostgreSQL: H2 has no data-modifying CTEs, in any compatibility mode. Runs only against a
+// throwaway database (the schema is created and dropped), e.g.
+//   SEAL_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/seal_test mvn test -Dtest=UserServicePostgresTests
+@SpringBootTest(properties = {
+		"spring.datasource.url=${SEAL_TEST_POSTGRES_URL}",
+		"spring.datasource.driver-class-name=org.postgresql.Driver",
+		"spring.datasource.username=${SEAL_TEST_POSTGRES_USER:postgres}",
+		"spring.datasource.password=${SEAL_TEST_POSTGRES_PASSWORD:postgres}",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+		"seal.registration.single-statement=true"
+})
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "SEAL_TEST_POSTGRES_URL", matches = ".+")
+class UserServicePostgresTests extends UserServiceTests {
+}
@@ -0,0 +1,103 @@
+package com.seal.seal.service;
+
+import com.seal.seal.exception.PhoneAlreadyRegisteredException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTests {
+
+	private static final int THREADS = 16;
+	private static final int SIGN_UPS = 100;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentSignUpsForOnePhoneCreateOneAccount() throws Exception {
+		String phone = "0194000" + System.nanoTime() % 100000;
+		AtomicInteger created = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				try {
+					userService.registerUser(phone, "secret1");
+					created.incrementAndGet();
+				} catch (PhoneAlreadyRegisteredException e) {
+					conflicts.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(1, created.get());
+		assertEquals(THREADS - 1, conflicts.get());
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE phone = ?", Integer.class, phone));
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM wallets w JOIN users u ON u.id = w.user_id WHERE u.phone = ?", Integer.class, phone));
+	}
+
+	@Test
+	void concurrentSignUpsEachGetAWallet() throws Exception {
+		String prefix = "0195" + System.nanoTime() % 1000;
+		signUp(prefix);
+
+		assertEquals(SIGN_UPS, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM users WHERE phone LIKE ?", Integer.class, prefix + "%"));
+		assertEquals(SIGN_UPS, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM wallets w JOIN users u ON u.id = w.user_id WHERE u.phone LIKE ?",
+				Integer.class, prefix + "%"));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void signUpsPerSecond() throws Exception {
+		long nanos = signUp("0196" + System.nanoTime() % 1000);
+		System.out.printf("sign-ups: %d in %d ms (%d/s, %d threads, BCrypt included)%n",
+				SIGN_UPS, nanos / 1_000_000, SIGN_UPS * 1_000_000_000L / nanos, THREADS);
+	}
+
+	// SIGN_UPS distinct phones under the prefix, THREADS at a time; returns the wall time
+	private long signUp(String prefix) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int i = 0; i < SIGN_UPS; i++) {
+			String phone = prefix + String.format("%06d", i);
+			futures.add(executor.submit(() -> userService.registerUser(phone, "secret1")));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long nanos = System.nanoTime() - start;
+		executor.shutdown();
+		return nanos;
+	}
+}
@@ -0,0 +1,107 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.Wallet;
+import com.seal.seal.exception.VelocityLimitExceededException;
+import com.seal.seal.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"seal.velocity.enabled=true",
+		"seal.velocity.minute.max-count=3",
+		"seal.velocity.hour.max-count=0",
+		"seal.velocity.day.max-count=0",
+		"seal.velocity.day.max-amount=10.00"
+})
+@ActiveProfiles("test")
+class VelocityRuleTests {
+
+	// Minor units
+	private static final long AMOUNT = 100;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private VelocityRule velocityRule;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void limitsSurviveRestartAndIgnoreRolledBackTransfers() {
+		String sender = "0199000" + System.nanoTime() % 100000;
+		String receiver = "0199100" + System.nanoTime() % 100000;
+		fund(userService.registerUser(sender, "secret1"), 1_000);
+		userService.registerUser(receiver, "secret1");
+
+		transactionService.transferMoney(sender, receiver, AMOUNT);
+		transactionService.transferMoney(sender, receiver, AMOUNT);
+		// Passed the rule, then rolled back: the slot must be given back
+		transactionTemplate.executeWithoutResult(status -> {
+			transactionService.transferMoney(sender, receiver, AMOUNT);
+			status.setRollbackOnly();
+		});
+		transactionService.transferMoney(sender, receiver, AMOUNT);
+		assertThrows(VelocityLimitExceededException.class, () -> transactionService.transferMoney(sender, receiver, AMOUNT));
+
+		// Forgotten windows are rebuilt from the transactions table
+		velocityRule.clear();
+		assertThrows(VelocityLimitExceededException.class, () -> transactionService.transferMoney(sender, receiver, AMOUNT));
+		assertEquals(1_000 - 3 * AMOUNT, walletBalance(sender));
+	}
+
+	@Test
+	void voidedHoldsCountTheSameBeforeAndAfterRestart() {
+		String sender = "0199400" + System.nanoTime() % 100000;
+		String receiver = "0199500" + System.nanoTime() % 100000;
+		fund(userService.registerUser(sender, "secret1"), 1_000);
+		userService.registerUser(receiver, "secret1");
+
+		transactionService.voidHold(sender, transactionService.authorizeHold(sender, receiver, AMOUNT).getId());
+		transactionService.transferMoney(sender, receiver, AMOUNT);
+		transactionService.transferMoney(sender, receiver, AMOUNT);
+		assertThrows(VelocityLimitExceededException.class, () -> transactionService.transferMoney(sender, receiver, AMOUNT));
+
+		velocityRule.clear();
+		assertThrows(VelocityLimitExceededException.class, () -> transactionService.transferMoney(sender, receiver, AMOUNT));
+		assertEquals(1_000 - 2 * AMOUNT, walletBalance(sender));
+	}
+
+	@Test
+	void rejectsOverTheDailyAmount() {
+		String sender = "0199200" + System.nanoTime() % 100000;
+		String receiver = "0199300" + System.nanoTime() % 100000;
+		fund(userService.registerUser(sender, "secret1"), 100_000);
+		userService.registerUser(receiver, "secret1");
+
+		transactionService.transferMoney(sender, receiver, 900);
+		VelocityLimitExceededException rejection = assertThrows(VelocityLimitExceededException.class,
+				() -> transactionService.transferMoney(sender, receiver, 200));
+		assertEquals(VelocityLimitExceededException.DAY, rejection);
+		transactionService.transferMoney(sender, receiver, 100);
+	}
+
+	private void fund(User user, long balance) {
+		Wallet wallet = walletRepository.findByUserId(user.getId()).orElseThrow();
+		wallet.setBalance(balance);
+		walletRepository.save(wallet);
+	}
+
+	private long walletBalance(String phone) {
+		return walletRepository.findByUserPhone(phone).orElseThrow().getBalance();
+	}
+}
@@ -0,0 +1,129 @@
+package com.seal.seal.service;
+
+import com.seal.seal.entity.User;
+import com.seal.seal.entity.WalletDailySummary;
+import com.seal.seal.exception.TransferConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletSummaryServiceTests {
+
+	private static final int SENDERS = 8;
+	// Minor units
+	private static final long AMOUNT = 250;
+
+	@Autowired
+	private WalletSummaryService walletSummaryService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private WalletService walletService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void firstTransferOfTheDayInsertsAndLaterOnesUpdate() {
+		Long from = walletId(register("0183000"));
+		Long to = walletId(register("0183100"));
+		LocalDate day = LocalDate.of(2026, 3, 1);
+
+		record(from, to, "1.50", day);
+		record(from, to, "2.25", day);
+		record(from, null, "10.00", day.plusDays(1));
+		record(null, from, "0.75", day.plusDays(1));
+
+		List<WalletDailySummary> sender = walletSummaryService.getDailySummaries(from, day, day.plusDays(1));
+		assertEquals(2, sender.size());
+		assertSummary(sender.get(0), "3.75", 2, "0", 0);
+		assertSummary(sender.get(1), "10.00", 1, "0.75", 1);
+
+		List<WalletDailySummary> receiver = walletSummaryService.getDailySummaries(to, day, day.plusDays(1));
+		assertEquals(1, receiver.size());
+		assertSummary(receiver.get(0), "0", 0, "3.75", 2);
+		assertEquals(0, walletSummaryService.getDailySummaries(to, day.minusDays(1), day.minusDays(1)).size());
+	}
+
+	@Test
+	void concurrentFirstTransfersToOneWalletShareOneRow() throws Exception {
+		List<String> senders = new ArrayList<>();
+		for (int i = 0; i < SENDERS; i++) {
+			String phone = register("01832" + i + "0");
+			walletService.updateBalance(walletId(phone), 10_000);
+			senders.add(phone);
+		}
+		String receiver = register("0183300");
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(SENDERS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (String sender : senders) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				while (true) {
+					try {
+						return transactionService.transferMoney(sender, receiver, AMOUNT);
+					} catch (TransferConflictException e) {
+						// Receiver row contention after the service's own retries; a client retries too.
+						// A lost insert race would surface as a duplicate key instead.
+					}
+				}
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		LocalDate today = LocalDate.now();
+		List<WalletDailySummary> summaries = walletSummaryService.getDailySummaries(walletId(receiver),
+				today.minusDays(1), today);
+		assertEquals(1, summaries.size());
+		assertSummary(summaries.get(0), "0", 0, "20.00", SENDERS);
+	}
+
+	private void record(Long from, Long to, String amount, LocalDate day) {
+		transactionTemplate.executeWithoutResult(status ->
+				walletSummaryService.recordTransfer(from, to, new BigDecimal(amount), day));
+	}
+
+	private static void assertSummary(WalletDailySummary summary, String sentTotal, long sentCount,
+									  String receivedTotal, long receivedCount) {
+		assertEquals(0, new BigDecimal(sentTotal).compareTo(summary.getSentTotal()));
+		assertEquals(sentCount, summary.getSentCount());
+		assertEquals(0, new BigDecimal(receivedTotal).compareTo(summary.getReceivedTotal()));
+		assertEquals(receivedCount, summary.getReceivedCount());
+	}
+
+	private String register(String prefix) {
+		String phone = prefix + System.nanoTime() % 100000;
+		userService.registerUser(phone, "secret1");
+		return phone;
+	}
+
+	private Long walletId(String phone) {
+		User user = userService.findByPhone(phone);
+		return walletService.findByUserId(user.getId()).getId();
+	}
+}
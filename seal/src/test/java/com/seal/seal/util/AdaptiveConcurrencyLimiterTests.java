@@ -0,0 +1,82 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long THRESHOLD = 1_000_000;
+	private static final long FAST = THRESHOLD / 2;
+	private static final long SLOW = THRESHOLD * 2;
+
+	@Test
+	void rejectsOnceTheLimitIsInFlight() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10, THRESHOLD);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(limiter.tryAcquire());
+		}
+		assertFalse(limiter.tryAcquire());
+		assertEquals(1, limiter.getRejected());
+		assertEquals(1.0, limiter.utilization());
+
+		limiter.release(FAST, true);
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	void growsAdditivelyOnlyWhileTheLimitIsExercised() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 12, THRESHOLD);
+
+		// One request at a time is far below the limit: no growth
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire();
+			limiter.release(FAST, true);
+		}
+		assertEquals(10, limiter.getLimit());
+
+		// Each fast sample released at least half full adds 1/limit: about half a slot per burst
+		fillAndRelease(limiter, FAST, true);
+		assertEquals(10, limiter.getLimit());
+		fillAndRelease(limiter, FAST, true);
+		fillAndRelease(limiter, FAST, true);
+		assertEquals(11, limiter.getLimit());
+
+		for (int i = 0; i < 20; i++) {
+			fillAndRelease(limiter, FAST, true);
+		}
+		assertEquals(12, limiter.getLimit());
+	}
+
+	@Test
+	void backsOffMultiplicativelyOnSlowOrFailedSamples() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 200, THRESHOLD);
+
+		limiter.tryAcquire();
+		limiter.release(SLOW, true);
+		assertEquals(90, limiter.getLimit());
+
+		limiter.tryAcquire();
+		limiter.release(FAST, false);
+		assertEquals(81, limiter.getLimit());
+
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire();
+			limiter.release(SLOW, true);
+		}
+		assertEquals(5, limiter.getLimit());
+	}
+
+	private static void fillAndRelease(AdaptiveConcurrencyLimiter limiter, long latency, boolean success) {
+		int acquired = 0;
+		while (limiter.tryAcquire()) {
+			acquired++;
+		}
+		for (int i = 0; i < acquired; i++) {
+			limiter.release(latency, success);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTests {
+
+	private static final int KEYS = 100_000;
+	private static final int POINTS = 160;
+
+	@Test
+	void phonesSpreadEvenlyOverNodes() {
+		int nodes = 4;
+		ConsistentHashRing ring = new ConsistentHashRing(nodes, POINTS);
+		int[] counts = new int[nodes];
+		for (int i = 0; i < KEYS; i++) {
+			counts[ring.nodeFor(phone(i))]++;
+		}
+		for (int node = 0; node < nodes; node++) {
+			// Within 20% of a perfectly even share
+			assertTrue(Math.abs(counts[node] - KEYS / nodes) < KEYS / nodes / 5, "node " + node + ": " + counts[node]);
+		}
+	}
+
+	@Test
+	void addingANodeOnlyMovesKeysOntoIt() {
+		ConsistentHashRing before = new ConsistentHashRing(3, POINTS);
+		ConsistentHashRing after = new ConsistentHashRing(4, POINTS);
+		int moved = 0;
+		for (int i = 0; i < KEYS; i++) {
+			int from = before.nodeFor(phone(i));
+			int to = after.nodeFor(phone(i));
+			if (from != to) {
+				assertEquals(3, to);
+				moved++;
+			}
+		}
+		// About a quarter; a modulo placement would move three quarters
+		assertTrue(moved > KEYS / 5 && moved < KEYS * 3 / 10, "moved " + moved);
+	}
+
+	private static String phone(int i) {
+		return String.format("017%08d", i);
+	}
+}
@@ -0,0 +1,93 @@
+package com.seal.seal.util;
+
+import com.seal.seal.dto.TransactionResponse;
+import com.seal.seal.entity.TransactionStatus;
+import com.seal.seal.entity.WalletStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Transfer validation plus DTO mapping, string statuses and BigDecimal balances versus
+// enum statuses and long minor units. The benchmark reports bytes allocated and time per
+// operation with -Pbenchmark. Both paths build the same response, whose amount is a
+// BigDecimal either way, so the difference is validation and balance arithmetic only.
+class MoneyBenchmarkTests {
+
+	private static final int ITERATIONS = 1_000_000;
+	private static final LocalDateTime NOW = LocalDateTime.now();
+
+	private static long sink;
+
+	@Test
+	void convertsAtTheEdges() {
+		assertEquals(1250, Money.toMinor(new BigDecimal("12.5")));
+		assertEquals(1250, Money.toMinor(new BigDecimal("12.500")));
+		assertEquals(new BigDecimal("12.50"), Money.toDecimal(1250));
+		assertThrows(RuntimeException.class, () -> Money.toMinor(new BigDecimal("12.345")));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void transferValidationAndMapping() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		Runnable decimalPath = () -> {
+			String fromStatus = "ACTIVE";
+			String toStatus = "ACTIVE";
+			BigDecimal fromBalance = new BigDecimal("1000.00");
+			BigDecimal toBalance = new BigDecimal("250.00");
+			for (int i = 0; i < ITERATIONS; i++) {
+				BigDecimal amount = BigDecimal.valueOf(1250 + (i & 63), 2).setScale(2, RoundingMode.UNNECESSARY);
+				if ("ACTIVE".equals(fromStatus) && "ACTIVE".equals(toStatus) && fromBalance.compareTo(amount) >= 0) {
+					BigDecimal newFrom = fromBalance.subtract(amount);
+					BigDecimal newTo = toBalance.add(amount);
+					TransactionResponse response = new TransactionResponse((long) i, "0170000001", "0180000001",
+							amount, "SEND", TransactionStatus.SUCCESS, NOW);
+					sink += newFrom.scale() + newTo.scale() + response.getAmount().scale();
+				}
+			}
+		};
+		Runnable minorPath = () -> {
+			WalletStatus fromStatus = WalletStatus.ACTIVE;
+			WalletStatus toStatus = WalletStatus.ACTIVE;
+			long fromBalance = 100_000;
+			long toBalance = 25_000;
+			for (int i = 0; i < ITERATIONS; i++) {
+				long amount = 1250 + (i & 63);
+				if (fromStatus == WalletStatus.ACTIVE && toStatus == WalletStatus.ACTIVE && fromBalance >= amount) {
+					long newFrom = fromBalance - amount;
+					long newTo = Math.addExact(toBalance, amount);
+					TransactionResponse response = new TransactionResponse((long) i, "0170000001", "0180000001",
+							amount, "SEND", TransactionStatus.SUCCESS, NOW);
+					sink += newFrom + newTo + response.getAmount().scale();
+				}
+			}
+		};
+
+		// Warm up both paths before measuring
+		decimalPath.run();
+		minorPath.run();
+
+		long tid = Thread.currentThread().getId();
+		long bytes = threads.getThreadAllocatedBytes(tid);
+		long start = System.nanoTime();
+		decimalPath.run();
+		long decimalNanos = System.nanoTime() - start;
+		long decimalBytes = threads.getThreadAllocatedBytes(tid) - bytes;
+
+		bytes = threads.getThreadAllocatedBytes(tid);
+		start = System.nanoTime();
+		minorPath.run();
+		long minorNanos = System.nanoTime() - start;
+		long minorBytes = threads.getThreadAllocatedBytes(tid) - bytes;
+
+		System.out.printf("transfer validation + mapping: BigDecimal/String %d B/op %d ns/op, minor units/enum %d B/op %d ns/op%n",
+				decimalBytes / ITERATIONS, decimalNanos / ITERATIONS, minorBytes / ITERATIONS, minorNanos / ITERATIONS);
+	}
+}
@@ -0,0 +1,54 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTimingsTests {
+
+	@AfterEach
+	void clear() {
+		RequestTimings.end();
+	}
+
+	@Test
+	void innerPhasePausesTheOuterOne() {
+		RequestTimings timings = RequestTimings.begin();
+
+		RequestTimings.enter("svc");
+		sleepMillis(5);
+		RequestTimings.enter("wallet");
+		sleepMillis(20);
+		RequestTimings.exit();
+		RequestTimings.enter("svc");
+		RequestTimings.exit();
+		RequestTimings.exit();
+
+		assertEquals("svc", timings.name(0));
+		assertEquals("wallet", timings.name(1));
+		assertEquals(1, timings.count(0));
+		assertTrue(timings.nanos(1) >= 20_000_000);
+		assertTrue(timings.nanos(0) < timings.nanos(1));
+		assertTrue(timings.toServerTiming(timings.elapsedNanos()).matches(
+				"svc;dur=\\d+\\.\\d{2}, wallet;dur=\\d+\\.\\d{2}, total;dur=\\d+\\.\\d{2}"));
+	}
+
+	@Test
+	void doesNothingOutsideARequest() {
+		RequestTimings.enter("svc");
+		RequestTimings.exit();
+
+		assertNull(RequestTimings.current());
+	}
+
+	private static void sleepMillis(long millis) {
+		long until = System.nanoTime() + millis * 1_000_000;
+		while (System.nanoTime() < until) {
+			LockSupport.parkNanos(until - System.nanoTime());
+		}
+	}
+}
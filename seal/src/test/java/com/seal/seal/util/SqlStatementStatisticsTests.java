@@ -0,0 +1,75 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatementStatisticsTests {
+
+	@Test
+	void foldsLiteralsAndInListsIntoOneShape() {
+		assertEquals("select w1_0.id from wallets w1_0 where w1_0.id in (?, ...) and w1_0.status=?",
+				SqlStatementStatistics.normalize("select w1_0.id\n    from wallets w1_0\n    where w1_0.id in (?,?,?) and w1_0.status='ACTIVE'"));
+		assertEquals("update wallets set balance = ? where user_id = (select id from users where phone = ?)",
+				SqlStatementStatistics.normalize("UPDATE wallets SET balance = 50 WHERE user_id = (SELECT id FROM users WHERE phone = '0123''45')")
+						.toLowerCase());
+
+		SqlStatementStatistics statistics = new SqlStatementStatistics(1000, 10);
+		assertSame(statistics.shapeOf("select * from t where id in (?,?)"),
+				statistics.shapeOf("select * from t where id in (?, ?, ?, ?)"));
+	}
+
+	@Test
+	void capsTheNumberOfShapes() {
+		SqlStatementStatistics statistics = new SqlStatementStatistics(1000, 2);
+		statistics.shapeOf("select a from t");
+		statistics.shapeOf("select b from t");
+
+		assertEquals(SqlStatementStatistics.OTHER, statistics.shapeOf("select c from t").sql());
+		assertEquals(SqlStatementStatistics.OTHER, statistics.shapeOf("select d from t").sql());
+		assertEquals(3, statistics.shapeCount());
+	}
+
+	@Test
+	void reportsCountsRowsAndPercentiles() {
+		SqlStatementStatistics statistics = new SqlStatementStatistics(50, 10);
+		SqlStatementStatistics.Shape shape = statistics.shapeOf("select * from wallets where user_id = 42");
+		for (int i = 1; i <= 100; i++) {
+			statistics.record(shape, i * 100_000L, false);
+			shape.addRows(2);
+		}
+		statistics.record(shape, 60_000_000L, true);
+
+		Map<String, Object> entry = statistics.snapshot(10).get(0);
+		assertEquals("select * from wallets where user_id = ?", entry.get("sql"));
+		assertEquals(101L, entry.get("count"));
+		assertEquals(1L, entry.get("errors"));
+		assertEquals(200L, entry.get("rows"));
+		assertEquals(1L, statistics.slowStatements());
+		// Buckets are within 12.5% of the true value: p50 is 5.1 ms, p99 10 ms, max 60 ms
+		assertWithin(5.1, (double) entry.get("p50Ms"));
+		assertWithin(10.0, (double) entry.get("p99Ms"));
+		assertEquals(60.0, (double) entry.get("maxMs"));
+
+		statistics.reset();
+		assertTrue(statistics.snapshot(10).isEmpty());
+	}
+
+	@Test
+	void histogramBucketsCoverTheirValues() {
+		for (long micros : List.of(0L, 1L, 15L, 16L, 17L, 100L, 1_000L, 123_456L, 10_000_000_000L)) {
+			int bucket = LatencyHistogram.bucket(micros);
+			assertTrue(LatencyHistogram.upperBound(bucket) >= micros, "upper " + micros);
+			assertFalse(bucket > 0 && LatencyHistogram.upperBound(bucket - 1) >= micros, "lower " + micros);
+		}
+	}
+
+	private static void assertWithin(double expected, double actual) {
+		assertTrue(Math.abs(actual - expected) <= expected * 0.125, expected + " vs " + actual);
+	}
+}
@@ -0,0 +1,64 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTests {
+
+	@Test
+	void allowsBurstThenRejectsWithWaitTime() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, Duration.ofMinutes(1), 1000);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("phone:1"));
+		}
+		long waitNanos = limiter.tryAcquire("phone:1");
+
+		assertTrue(waitNanos > Duration.ofSeconds(50).toNanos());
+		assertEquals(0, limiter.tryAcquire("phone:2"));
+	}
+
+	@Test
+	void staysBoundedUnderKeyFlood() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMinutes(1), 1600);
+
+		for (int i = 0; i < 100_000; i++) {
+			limiter.tryAcquire("ip:" + i);
+		}
+
+		assertTrue(limiter.size() <= 1600);
+	}
+
+	@Test
+	void keyFloodNeitherResetsActiveBucketsNorGrows() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, Duration.ofMinutes(1), 160);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire("phone:victim"));
+		}
+
+		for (int i = 0; i < 100_000; i++) {
+			limiter.tryAcquire("ip:" + i);
+		}
+
+		assertTrue(limiter.size() <= 160);
+		assertTrue(limiter.tryAcquire("phone:victim") > 0, "the exhausted bucket survived the flood");
+		// Every stripe is full of buckets still refilling; new keys wait for the first one
+		long waitNanos = limiter.tryAcquire("ip:new");
+		assertTrue(waitNanos > 0 && waitNanos <= Duration.ofMinutes(1).toNanos());
+	}
+
+	@Test
+	void newKeysGetInOnceBucketsRefill() throws Exception {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(1), 160);
+		for (int i = 0; i < 1_000; i++) {
+			limiter.tryAcquire("ip:" + i);
+		}
+
+		Thread.sleep(20);
+
+		assertEquals(0, limiter.tryAcquire("ip:new"));
+	}
+}
@@ -0,0 +1,63 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TransactionArchiveTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void oldestFirstMergesSegmentsLazilyAndOnce() throws Exception {
+		// Small blocks, so each wallet's rows span many of them
+		TransactionArchive archive = new TransactionArchive(directory, 512);
+		List<ArchivedTransaction> first = new ArrayList<>();
+		List<ArchivedTransaction> second = new ArrayList<>();
+		for (int id = 1; id <= 600; id++) {
+			// Wallets 1-3 trade with each other; the timestamps interleave the two segments
+			ArchivedTransaction row = row(id, 1 + id % 3, 1 + (id + 1) % 3, START.plusMinutes(id % 2 == 0 ? id : 1_000 - id));
+			(id <= 300 ? first : second).add(row);
+		}
+		// A run that died after writing its segment leaves its rows to the next run too
+		second.add(0, first.get(first.size() - 1));
+		archive.append(first);
+		archive.append(second);
+
+		for (long wallet = 1; wallet <= 3; wallet++) {
+			List<ArchivedTransaction> newestFirst = archive.find(wallet);
+			List<ArchivedTransaction> oldestFirst = new ArrayList<>();
+			archive.findOldestFirst(wallet).forEachRemaining(oldestFirst::add);
+			assertEquals(400, oldestFirst.size());
+			assertEquals(newestFirst.reversed(), oldestFirst);
+		}
+		assertFalse(archive.findOldestFirst(4).hasNext());
+	}
+
+	@Test
+	void newSegmentsShowUpAfterRefresh() throws Exception {
+		new TransactionArchive(directory, 512).append(List.of(row(1, 1, 2, START)));
+		TransactionArchive reader = new TransactionArchive(directory, 512);
+		assertEquals(1, reader.refresh());
+
+		Iterator<ArchivedTransaction> rows = reader.findOldestFirst(2);
+		assertEquals(1, rows.next().id());
+		assertFalse(rows.hasNext());
+		assertEquals(0, reader.refresh());
+	}
+
+	private static ArchivedTransaction row(long id, long fromWallet, long toWallet, LocalDateTime createdAt) {
+		return new ArchivedTransaction(id, fromWallet, fromWallet + 100, "0170000000" + fromWallet,
+				toWallet, toWallet + 100, "0170000000" + toWallet, 100 + id, (short) 1, (short) 2, createdAt, null, null);
+	}
+}
@@ -0,0 +1,71 @@
+package com.seal.seal.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VelocityWindowsTests {
+
+	private static final long T0 = 1_700_000_000_000L;
+	private static final int WALLETS = 10_000;
+	private static final int ITERATIONS = 2_000_000;
+
+	private static long sink;
+
+	@Test
+	void limitsEachWindowAndForgetsExpiredBuckets() {
+		// 3 per minute, 5 per hour, 1000.00 per day
+		VelocityWindows windows = new VelocityWindows(new long[] {3, 5, 0}, new long[] {0, 0, 100_000});
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(-1, windows.tryRecord(T0 + i, 100));
+		}
+		assertEquals(VelocityWindows.MINUTE, windows.tryRecord(T0 + 10, 100));
+
+		// A minute later the minute window is empty again, the hour window still counts
+		assertEquals(-1, windows.tryRecord(T0 + 61_000, 100));
+		assertEquals(-1, windows.tryRecord(T0 + 62_000, 100));
+		assertEquals(VelocityWindows.HOUR, windows.tryRecord(T0 + 63_000, 100));
+
+		// Rolled-back transfers give their room back
+		windows.undo(T0 + 62_000, 100);
+		assertEquals(-1, windows.tryRecord(T0 + 64_000, 100));
+
+		assertEquals(VelocityWindows.DAY, windows.tryRecord(T0 + 7_200_000, 99_600));
+		assertEquals(-1, windows.tryRecord(T0 + VelocityWindows.DAY_MILLIS + 900_000, 99_500));
+	}
+
+	// One lookup plus a full check-and-record across three windows, with the undo a
+	// rolled-back transfer would do, spread over many wallets. Reported, not asserted:
+	// run with -Pbenchmark.
+	@Test
+	@Tag("benchmark")
+	void ruleEvaluation() {
+		ConcurrentMap<Long, VelocityWindows> wallets = new ConcurrentHashMap<>();
+		long[] maxCounts = {1_000_000, 1_000_000, 1_000_000};
+		long[] maxAmounts = {0, 0, 0};
+		for (long id = 0; id < WALLETS; id++) {
+			wallets.put(id, new VelocityWindows(maxCounts, maxAmounts));
+		}
+
+		run(wallets);
+		long start = System.nanoTime();
+		run(wallets);
+		long nanosPerOp = (System.nanoTime() - start) / ITERATIONS;
+
+		System.out.printf("velocity rule evaluation: %d ns/op over %d wallets%n", nanosPerOp, WALLETS);
+	}
+
+	private static void run(ConcurrentMap<Long, VelocityWindows> wallets) {
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < ITERATIONS; i++) {
+			VelocityWindows windows = wallets.get((long) (i % WALLETS));
+			int exceeded = windows.tryRecord(now + (i >> 10), 100);
+			windows.undo(now + (i >> 10), 100);
+			sink += exceeded;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+#!/bin/bash
+
+# Native image smoke test: starts the JVM jar and the native executable one after the
+# other against the local database, and compares time to readiness and resident memory.
+# Build both first:
+#   cd seal && ./mvnw -DskipTests package && ./mvnw -Pnative -DskipTests native:compile
+# Needs PostgreSQL with the schema from database/tables.sql (see test_db.sh).
+PORT=8080
+BASE_URL="http://localhost:$PORT"
+JAR=$(ls seal/target/seal-*.jar 2>/dev/null | grep -v original | head -1)
+NATIVE=seal/target/seal
+
+echo "🧪 Seal native image smoke test"
+echo "==============================="
+
+if [ -z "$JAR" ] || [ ! -x "$NATIVE" ]; then
+    echo "❌ Missing build output: need seal/target/seal-*.jar and seal/target/seal"
+    exit 1
+fi
+
+if curl -s "$BASE_URL/actuator/health/liveness" > /dev/null 2>&1; then
+    echo "❌ Something is already listening on port $PORT"
+    exit 1
+fi
+
+# Starts the command, waits for readiness, checks a register/login round trip (BCrypt,
+# JJWT, Hibernate) and prints startup time and RSS
+run() {
+    local name=$1
+    shift
+    local start=$(date +%s%N)
+    "$@" --server.port=$PORT > "/tmp/seal-$name.log" 2>&1 &
+    local pid=$!
+
+    for i in $(seq 1 600); do
+        if curl -s "$BASE_URL/actuator/health/readiness" | grep -q '"UP"'; then
+            break
+        fi
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "❌ $name exited during startup, see /tmp/seal-$name.log"
+            return 1
+        fi
+        sleep 0.1
+    done
+    local ready_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    local rss_kb=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+
+    local phone="01$(date +%s | tail -c 9)"
+    curl -s -X POST "$BASE_URL/auth/register" -H "Content-Type: application/json" \
+        -d "{\"phone\":\"$phone\",\"password\":\"secret1\"}" > /dev/null
+    local token=$(curl -s -X POST "$BASE_URL/auth/login" -H "Content-Type: application/json" \
+        -d "{\"phone\":\"$phone\",\"password\":\"secret1\"}" | grep -o '"accessToken":"[^"]*"' | cut -d'"' -f4)
+    local status=$(curl -s -o /dev/null -w "%{http_code}" "$BASE_URL/wallet/balance" -H "Authorization: Bearer $token")
+    local rss_after_kb=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+
+    kill $pid
+    wait $pid 2>/dev/null
+
+    if [ "$status" != "200" ]; then
+        echo "❌ $name: authenticated request returned $status, see /tmp/seal-$name.log"
+        return 1
+    fi
+    printf "✅ %-7s ready in %6d ms, RSS %4d MB at ready, %4d MB after requests\n" \
+        "$name" "$ready_ms" $((rss_kb / 1024)) $((rss_after_kb / 1024))
+}
+
+run jvm java -jar "$JAR" || exit 1
+run native "$NATIVE" || exit 1